@@ -0,0 +1,259 @@
+package com.example.manager;
+
+import com.example.simulation.SeatSymmetry;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Multi-game run, that samples matchups instead of playing all of them. Every player first plays a minimum number of
+ * games, then the next games are built around the adjacent pair of the current ranking, that is least resolved. The
+ * run ends, as soon as the {@link RankingEstimate ranking} is stable at {@link RunConfiguration#rankingConfidence},
+ * or when every matchup has been played.
+ * <p>
+ * Scores are the mean score per game of every player, as players take part in different numbers of games. With
+ * {@link RunConfiguration#journal}, a restarted run feeds the journaled games into the estimate before sampling.
+ */
+public class AdaptiveMultiGameRun extends Run {
+
+    private static final int MIN_GAMES_PER_PLAYER = 6;
+    private static final int MIN_GAMES_IN_FLIGHT = 4;
+    private static final int GAMES_IN_FLIGHT_PER_PROCESSOR = 2;
+    private static final int SAMPLING_ATTEMPTS = 32;
+
+    int completed = 0;
+
+    final long exhaustiveGameCount;
+
+    private final float[] scores;
+    private final RunConfiguration runConfig;
+    private final RankingEstimate estimate;
+    private final Random random;
+    private final Set<List<Integer>> playedMatchUps = new HashSet<>();
+    private final MatchUps remainingMatchUps;
+    private final int maxGamesInFlight;
+    private int gamesInFlight = 0;
+    private int cachedGames = 0;
+    private boolean stable = false;
+    private final Map<Game, Integer[]> playerIndices = new HashMap<>();
+    private final Map<Game, ResultCache.Key> cacheKeys = new HashMap<>();
+    private ResultCache resultCache = null;
+    private RunJournal journal = null;
+
+    protected AdaptiveMultiGameRun(Manager manager, RunConfiguration runConfig) {
+        super(manager, runConfig);
+        this.runConfig = runConfig;
+        scores = new float[runConfig.players.size()];
+        estimate = new RankingEstimate(runConfig.players.size(), MIN_GAMES_PER_PLAYER, runConfig.rankingTolerance);
+        random = new Random(Manager.getSeed());
+        remainingMatchUps = new MatchUps(runConfig.players.size(), runConfig.teamCount, SeatSymmetry.ofMap(runConfig.mapName, runConfig.teamCount));
+        exhaustiveGameCount = remainingMatchUps.size();
+        //Few games in flight, as the next matchups are chosen from the results of the completed ones
+        maxGamesInFlight = Math.max(MIN_GAMES_IN_FLIGHT, Runtime.getRuntime().availableProcessors() * GAMES_IN_FLIGHT_PER_PROCESSOR);
+        if (runConfig.resultCache && !runConfig.replay)
+            resultCache = manager.getResultCache();
+        if (runConfig.journal) {
+            try {
+                journal = RunJournal.open(ParallelMultiGameRun.JOURNAL_DIR, runConfig);
+            } catch (IOException e) {
+                System.err.println("Unable to open run journal, progress will not be saved: " + e);
+            }
+        }
+
+        System.out.printf("Running adaptive Multigame of at most %d games, until the ranking holds at %.1f %% confidence\n",
+                exhaustiveGameCount, runConfig.rankingConfidence * 100);
+        synchronized (scores) {
+            if (journal != null) resumeFromJournal();
+            scheduleGames();
+        }
+    }
+
+    /**
+     * Counts the games completed by a previous run with the same configuration. They have the same seeds, so the
+     * estimate is the same as if they had been played by this run.
+     */
+    private void resumeFromJournal() {
+        Map<List<Integer>, float[]> journaled = journal.takeCompletedMatchUps();
+        if (journaled.isEmpty()) return;
+        System.out.printf("Resuming from journal %s, %d games have already been completed\n", journal.getFile(), journaled.size());
+        for (Map.Entry<List<Integer>, float[]> entry : journaled.entrySet()) {
+            if (playedMatchUps.add(entry.getKey())) addScores(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Creates and schedules games for the most informative matchups, until maxGamesInFlight games are in flight or the
+     * ranking is stable. Matchups found in the result cache are counted without creating a game.
+     */
+    private void scheduleGames() {
+        while (gamesInFlight < maxGamesInFlight && !stable) {
+            List<Integer> matchUp = nextMatchUp();
+            if (matchUp == null) break;
+            GameConfig cur = new GameConfig(runConfig);
+            List<Class<? extends Player>> players = new ArrayList<>();
+            for (Integer index : matchUp) {
+                players.add(runConfig.players.get(index));
+            }
+            cur.players = players;
+            //Same seed as the game of this matchup in an exhaustive run, so both share the result cache
+            cur.seed = PlayerDigests.matchUpSeed(cur.mapName, players);
+            ResultCache.Key cacheKey = null;
+            if (resultCache != null) {
+                cacheKey = ResultCache.keyOf(cur);
+                float[] cachedScores = resultCache.get(cacheKey);
+                if (cachedScores != null) {
+                    cachedGames++;
+                    addScores(matchUp, cachedScores);
+                    continue;
+                }
+            }
+            Game curGame = new Game(cur);
+            curGame.addCompletionListener(this::onGameCompletion);
+            playerIndices.put(curGame, matchUp.toArray(new Integer[0]));
+            if (cacheKey != null) cacheKeys.put(curGame, cacheKey);
+            gamesInFlight++;
+            addGame(curGame);
+        }
+        if (gamesInFlight == 0 && !isCompleted()) onRunCompletion();
+    }
+
+    /**
+     * @return A matchup, that has not been played yet, including the players whose ranking is least certain. Null, if
+     * the ranking is stable or all matchups have been played.
+     */
+    private List<Integer> nextMatchUp() {
+        if (playedMatchUps.size() >= exhaustiveGameCount) return null;
+        List<Integer> focus = new ArrayList<>(2);
+        int leastPlayed = estimate.leastPlayed();
+        if (leastPlayed >= 0) {
+            focus.add(leastPlayed);
+        } else {
+            Integer[] ranking = estimate.ranking();
+            int pair = estimate.mostUncertainPair(ranking, runConfig.rankingConfidence);
+            if (pair < 0) {
+                stable = true;
+                return null;
+            }
+            int upper = ranking[pair];
+            int lower = ranking[pair + 1];
+            //With a single seat the pair is resolved by the player with fewer games
+            if (runConfig.teamCount < 2 && estimate.getGames(lower) < estimate.getGames(upper)) focus.add(lower);
+            else focus.add(upper);
+            if (runConfig.teamCount >= 2) focus.add(lower);
+        }
+
+        List<Integer> others = new ArrayList<>(scores.length);
+        for (int i = 0; i < scores.length; i++) {
+            if (!focus.contains(i)) others.add(i);
+        }
+        for (int attempt = 0; attempt < SAMPLING_ATTEMPTS; attempt++) {
+            Collections.shuffle(others, random);
+            List<Integer> matchUp = new ArrayList<>(focus);
+            matchUp.addAll(others.subList(0, runConfig.teamCount - focus.size()));
+            Collections.shuffle(matchUp, random);
+            //Seat orders, that play the same on the map, are only played once
+            matchUp = remainingMatchUps.canonical(matchUp);
+            if (playedMatchUps.add(matchUp)) return matchUp;
+        }
+        //The matchups around the focus are used up, any unplayed one still improves the estimates
+        while (remainingMatchUps.hasNext()) {
+            List<Integer> matchUp = remainingMatchUps.next();
+            if (playedMatchUps.add(matchUp)) return matchUp;
+        }
+        return null;
+    }
+
+    private void addScores(List<Integer> matchUp, float[] gameScores) {
+        for (int i = 0; i < gameScores.length; i++) {
+            estimate.add(matchUp.get(i), gameScores[i]);
+        }
+        completed++;
+    }
+
+    public void onGameCompletion(Executable exec) {
+        Game game = (Game) exec;
+        Integer[] matchup;
+        ResultCache.Key cacheKey;
+        synchronized (scores) {
+            matchup = playerIndices.remove(game);
+            cacheKey = cacheKeys.remove(game);
+        }
+        if (journal != null) {
+            try {
+                journal.append(matchup, game.getScores());
+            } catch (IOException e) {
+                System.err.println("Unable to journal completed game: " + e);
+            }
+        }
+        if (cacheKey != null && game.getStatus() == Executable.Status.COMPLETED) {
+            try {
+                resultCache.put(cacheKey, game.getScores());
+            } catch (IOException e) {
+                System.err.println("Unable to cache the result of a completed game: " + e);
+            }
+        }
+        synchronized (scores) {
+            addScores(Arrays.asList(matchup), game.getScores());
+            gamesInFlight--;
+            if (!runConfig.gui) removeGame(game);
+            scheduleGames();
+        }
+        publishLeaderboard();
+    }
+
+    private void onRunCompletion() {
+        if (cachedGames > 0)
+            System.out.printf("Took %d of %d games from the result cache %s\n", cachedGames, completed, resultCache.getFile());
+        if (stable)
+            System.out.printf("AdaptiveMultiGameRun(%d): ranking stable after %d of %d games, saved %d games (%.1f %%)\n",
+                    hashCode(), completed, exhaustiveGameCount, getSavedGames(),
+                    exhaustiveGameCount > 0 ? getSavedGames() * 100.0 / exhaustiveGameCount : 0);
+        else
+            System.out.printf("AdaptiveMultiGameRun(%d): ranking not stable after all %d games\n", hashCode(), completed);
+        for (int j = 0; j < scores.length; j++) {
+            scores[j] = (float) estimate.getMean(j);
+        }
+        //The results are final, a new run with the same configuration starts from scratch
+        if (journal != null) journal.delete();
+        complete();
+    }
+
+    /**
+     * @return Number of games of an exhaustive run, that have not been played by this run
+     */
+    public long getSavedGames() {
+        synchronized (scores) {
+            return exhaustiveGameCount - completed;
+        }
+    }
+
+    @Override
+    public float[] getScores() {
+        return scores;
+    }
+
+    /**
+     * The game count of the leaderboard is the number of games of an exhaustive run, the run usually ends earlier.
+     */
+    @Override
+    public Leaderboard getLeaderboard() {
+        synchronized (scores) {
+            float[] current = new float[scores.length];
+            for (int j = 0; j < current.length; j++) {
+                current[j] = (float) estimate.getMean(j);
+            }
+            return new Leaderboard(Collections.unmodifiableList(getPlayers()), current, completed, exhaustiveGameCount, isCompleted());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveMultiGameRun{" +
+                "super=" + super.toString() +
+                ", completed=" + completed +
+                ", exhaustiveGameCount=" + exhaustiveGameCount +
+                ", scores=" + Arrays.toString(scores) +
+                ", playerIndices=" + playerIndices +
+                '}';
+    }
+}
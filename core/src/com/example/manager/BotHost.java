@@ -0,0 +1,106 @@
+package com.example.manager;
+
+import com.example.manager.command.CommandCodec;
+import com.example.simulation.GameState;
+import com.example.simulation.GameStateCodec;
+
+import java.io.*;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * Entry point of a child JVM hosting a single bot at a time, leased from a {@link BotProcessPool}.
+ * <p>
+ * Frames (see {@link BotProtocol}) are read from stdin and written to stdout. Output of the bot is redirected to
+ * stderr, so it can not corrupt the protocol. Bots are loaded by a new class loader for every game, to not share
+ * static state between games.
+ */
+public final class BotHost {
+
+    private BotHost() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        OutputStream protocolOut = new FileOutputStream(FileDescriptor.out);
+        System.setOut(System.err);
+        BotProtocol.FrameReader reader = new BotProtocol.FrameReader(new FileInputStream(FileDescriptor.in));
+        BotProtocol.FrameWriter writer = new BotProtocol.FrameWriter(protocolOut);
+        writer.send(BotProtocol.READY);
+
+        Player player = null;
+        while (true) {
+            byte type;
+            try {
+                type = reader.next();
+            } catch (EOFException e) {
+                //The game process has terminated
+                break;
+            }
+            DataInputStream in = reader.getPayload();
+            switch (type) {
+                case BotProtocol.INIT: {
+                    String className = in.readUTF();
+                    long seed = in.readLong();
+                    GameState state = GameStateCodec.read(in);
+                    try {
+                        player = instantiate(className);
+                        if (player instanceof Bot) ((Bot) player).setRnd(seed);
+                        player.init(state);
+                        writer.begin(BotProtocol.INIT_DONE).writeUTF(player.getName());
+                        writer.send();
+                    } catch (Throwable e) {
+                        player = null;
+                        sendError(writer, e);
+                    }
+                    break;
+                }
+                case BotProtocol.TURN: {
+                    int team = in.readInt();
+                    int uses = in.readInt();
+                    GameState state = GameStateCodec.read(in);
+                    if (player == null) {
+                        sendError(writer, new IllegalStateException("No bot has been initialized"));
+                        break;
+                    }
+                    Controller controller = new Controller(cmd -> {
+                        try {
+                            CommandCodec.write(cmd, writer.begin(BotProtocol.COMMAND));
+                            writer.send();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, team, uses);
+                    try {
+                        player.executeTurn(state, controller);
+                        controller.deactivate();
+                        writer.send(BotProtocol.TURN_DONE);
+                    } catch (Throwable e) {
+                        controller.deactivate();
+                        sendError(writer, e);
+                    }
+                    break;
+                }
+                case BotProtocol.SHUTDOWN:
+                    System.exit(0);
+                    return;
+                default:
+                    throw new IOException("Unexpected frame " + type);
+            }
+        }
+        System.exit(0);
+    }
+
+    private static Player instantiate(String className) throws ReflectiveOperationException, IOException {
+        ClassLoader loader = new URLClassLoader(new URL[]{new File(".").toURI().toURL()}, BotHost.class.getClassLoader());
+        Class<?> playerClass = loader.loadClass(className);
+        if (!Player.class.isAssignableFrom(playerClass))
+            throw new ClassNotFoundException(className + " is not a Player");
+        return (Player) playerClass.getDeclaredConstructors()[0].newInstance();
+    }
+
+    private static void sendError(BotProtocol.FrameWriter writer, Throwable e) throws IOException {
+        e.printStackTrace();
+        writer.begin(BotProtocol.ERROR).writeUTF(String.valueOf(e));
+        writer.send();
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.manager;
+
+import com.example.simulation.GameState;
+import com.example.simulation.GameStateCodec;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handle of a child JVM running a {@link BotHost}. Calls are not thread-safe, except for {@link #kill()}.
+ */
+class BotProcess {
+
+    private static final long SHUTDOWN_TIMEOUT = 100;
+
+    private final Process process;
+    private final BotProtocol.FrameWriter writer;
+    private final BotProtocol.FrameReader reader;
+    private volatile boolean killed = false;
+    //Set while a request is pending. A process, that did not answer a request, must not be reused
+    private volatile boolean busy = false;
+
+    private BotProcess(Process process) {
+        this.process = process;
+        writer = new BotProtocol.FrameWriter(process.getOutputStream());
+        reader = new BotProtocol.FrameReader(process.getInputStream());
+    }
+
+    /**
+     * Starts a new process and waits until it is ready to host a bot.
+     */
+    static BotProcess start(List<String> command) throws IOException {
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+        BotProcess botProcess = new BotProcess(builder.start());
+        try {
+            if (botProcess.reader.next() != BotProtocol.READY)
+                throw new IOException("Bot process did not report to be ready");
+        } catch (IOException e) {
+            botProcess.kill();
+            throw e;
+        }
+        return botProcess;
+    }
+
+    /**
+     * Creates a new instance of the bot in the process and initializes it.
+     *
+     * @return The name reported by the bot
+     */
+    String init(String className, long seed, GameState state) throws IOException {
+        busy = true;
+        DataOutputStream payload = writer.begin(BotProtocol.INIT);
+        payload.writeUTF(className);
+        payload.writeLong(seed);
+        GameStateCodec.write(state, payload);
+        writer.send();
+        byte type = reader.next();
+        DataInputStream in = reader.getPayload();
+        switch (type) {
+            case BotProtocol.INIT_DONE:
+                busy = false;
+                return in.readUTF();
+            case BotProtocol.ERROR:
+                busy = false;
+                throw new RuntimeException("Bot failed initialization in separate process: " + in.readUTF());
+            default:
+                throw new IOException("Unexpected frame " + type + " during initialization");
+        }
+    }
+
+    /**
+     * Executes a turn of the bot. Commands are forwarded to the controller as soon as they arrive.
+     */
+    void executeTurn(GameState state, Controller controller) throws IOException {
+        busy = true;
+        DataOutputStream payload = writer.begin(BotProtocol.TURN);
+        payload.writeInt(controller.getTeam());
+        payload.writeInt(controller.getRemainingUses());
+        GameStateCodec.write(state, payload);
+        writer.send();
+        while (true) {
+            byte type = reader.next();
+            DataInputStream in = reader.getPayload();
+            switch (type) {
+                case BotProtocol.COMMAND:
+                    controller.queueEncoded(in);
+                    break;
+                case BotProtocol.TURN_DONE:
+                    busy = false;
+                    return;
+                case BotProtocol.ERROR:
+                    busy = false;
+                    throw new RuntimeException("Bot failed in separate process: " + in.readUTF());
+                default:
+                    throw new IOException("Unexpected frame " + type + " during turn");
+            }
+        }
+    }
+
+    /**
+     * Terminates the process immediately. Pending calls fail with an IOException.
+     */
+    void kill() {
+        killed = true;
+        process.destroyForcibly();
+    }
+
+    /**
+     * Asks the process to exit and kills it, if it does not comply in time.
+     */
+    void close() {
+        try {
+            writer.send(BotProtocol.SHUTDOWN);
+            if (process.waitFor(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS)) return;
+        } catch (IOException ignored) {
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        kill();
+    }
+
+    boolean isKilled() {
+        return killed;
+    }
+
+    boolean isReusable() {
+        return !killed && !busy && process.isAlive();
+    }
+
+    @Override
+    public String toString() {
+        return "BotProcess{" +
+                "pid=" + process.pid() +
+                ", killed=" + killed +
+                ", busy=" + busy +
+                '}';
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of pre-warmed child JVMs hosting bots out of process (see {@link BotHost}).
+ * <p>
+ * Starting a JVM takes far longer than a turn, so the pool keeps warmProcesses started processes idle. Leasing a
+ * process triggers starting a replacement in the background. Processes are reused across games as long as every request
+ * has been answered; processes, that exceeded a deadline or failed, are killed instead of being stopped in place.
+ */
+public class BotProcessPool {
+
+    public static final int DEFAULT_WARM_PROCESSES = 4;
+
+    private final int warmProcesses;
+    private final List<String> command = new ArrayList<>();
+    private final ArrayDeque<BotProcess> idle = new ArrayDeque<>();
+    private int starting = 0;
+    private boolean closed = false;
+
+    private final AtomicLong started = new AtomicLong(0);
+    private final AtomicLong leased = new AtomicLong(0);
+    private final AtomicLong coldStarts = new AtomicLong(0);
+    private final AtomicLong recycled = new AtomicLong(0);
+
+    /**
+     * @param warmProcesses number of started processes kept idle
+     */
+    public BotProcessPool(int warmProcesses) {
+        if (warmProcesses < 0) throw new IllegalArgumentException("Number of warm processes must not be negative");
+        this.warmProcesses = warmProcesses;
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        //Bots are single threaded, a parallel collector would only compete with the games for processors
+        command.add("-XX:+UseSerialGC");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(BotHost.class.getName());
+    }
+
+    /**
+     * Starts processes in the background, until warmProcesses are idle.
+     */
+    public void prewarm() {
+        int missing;
+        synchronized (this) {
+            if (closed) return;
+            missing = warmProcesses - idle.size() - starting;
+            if (missing <= 0) return;
+            starting += missing;
+        }
+        for (int i = 0; i < missing; i++) {
+            Thread starter = new Thread(this::startIdleProcess);
+            starter.setName("Bot_Process_Starter");
+            starter.setDaemon(true);
+            starter.start();
+        }
+    }
+
+    private void startIdleProcess() {
+        BotProcess process = null;
+        try {
+            process = startProcess();
+        } catch (IOException e) {
+            System.err.println("Unable to start bot process: " + e);
+        }
+        synchronized (this) {
+            starting--;
+            if (process == null) return;
+            if (!closed) {
+                idle.add(process);
+                return;
+            }
+        }
+        process.close();
+    }
+
+    private BotProcess startProcess() throws IOException {
+        BotProcess process = BotProcess.start(command);
+        started.incrementAndGet();
+        return process;
+    }
+
+    /**
+     * @return A process ready to host a bot, started on demand if none is idle
+     */
+    BotProcess lease() throws IOException {
+        BotProcess process;
+        synchronized (this) {
+            if (closed) throw new IllegalStateException("BotProcessPool has already been closed");
+            while ((process = idle.poll()) != null && !process.isReusable()) {
+                process.kill();
+            }
+        }
+        prewarm();
+        if (process == null) {
+            coldStarts.incrementAndGet();
+            process = startProcess();
+        }
+        leased.incrementAndGet();
+        return process;
+    }
+
+    /**
+     * Returns a process, that is no longer used. Processes, that are not reusable, are terminated.
+     */
+    void release(BotProcess process) {
+        if (!process.isReusable()) {
+            recycle(process);
+            return;
+        }
+        synchronized (this) {
+            if (!closed && idle.size() < warmProcesses) {
+                idle.add(process);
+                return;
+            }
+        }
+        process.close();
+    }
+
+    /**
+     * Kills a process, e.g. because its bot exceeded the deadline, and starts a replacement.
+     */
+    void recycle(BotProcess process) {
+        process.kill();
+        recycled.incrementAndGet();
+        prewarm();
+    }
+
+    /**
+     * Terminates all idle processes. Leased processes are terminated when they are released.
+     */
+    public void close() {
+        List<BotProcess> processes;
+        synchronized (this) {
+            closed = true;
+            processes = new ArrayList<>(idle);
+            idle.clear();
+        }
+        for (BotProcess process : processes) {
+            process.close();
+        }
+    }
+
+    public int getWarmProcesses() {
+        return warmProcesses;
+    }
+
+    public synchronized int getIdleProcesses() {
+        return idle.size();
+    }
+
+    public long getStartedProcesses() {
+        return started.get();
+    }
+
+    public long getLeasedProcesses() {
+        return leased.get();
+    }
+
+    /**
+     * @return How often a game had to wait for a process to be started, because none was idle
+     */
+    public long getColdStarts() {
+        return coldStarts.get();
+    }
+
+    public long getRecycledProcesses() {
+        return recycled.get();
+    }
+
+    @Override
+    public String toString() {
+        return "BotProcessPool{" +
+                "warmProcesses=" + warmProcesses +
+                ", idle=" + getIdleProcesses() +
+                ", started=" + started +
+                ", coldStarts=" + coldStarts +
+                ", recycled=" + recycled +
+                '}';
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.manager;
+
+import java.io.*;
+
+/**
+ * Framing of the messages exchanged with bots hosted in a separate process (see {@link BotHost}).
+ * <p>
+ * Every frame is prefixed by its length and starts with its type. Frames are assembled in a reused buffer and written
+ * with a single flush, so a turn without commands costs one write and one read on each side.
+ * <pre>
+ * READY      host -> game
+ * INIT       game -> host: className, seed, state
+ * INIT_DONE  host -> game: name
+ * TURN       game -> host: team, uses, state
+ * COMMAND    host -> game: command
+ * TURN_DONE  host -> game
+ * ERROR      host -> game: message
+ * SHUTDOWN   game -> host
+ * </pre>
+ */
+final class BotProtocol {
+
+    static final byte READY = 1;
+    static final byte INIT = 2;
+    static final byte INIT_DONE = 3;
+    static final byte TURN = 4;
+    static final byte COMMAND = 5;
+    static final byte TURN_DONE = 6;
+    static final byte ERROR = 7;
+    static final byte SHUTDOWN = 8;
+
+    private static final int MAX_FRAME_SIZE = 1 << 20;
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    private BotProtocol() {
+    }
+
+    static class FrameWriter {
+        private final DataOutputStream out;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        private final DataOutputStream payload = new DataOutputStream(buffer);
+
+        FrameWriter(OutputStream out) {
+            this.out = new DataOutputStream(new BufferedOutputStream(out));
+        }
+
+        /**
+         * Starts a new frame. The content has to be written to the returned stream before calling {@link #send()}.
+         */
+        DataOutputStream begin(byte type) throws IOException {
+            buffer.reset();
+            payload.writeByte(type);
+            return payload;
+        }
+
+        void send() throws IOException {
+            out.writeInt(buffer.size());
+            buffer.writeTo(out);
+            out.flush();
+        }
+
+        void send(byte type) throws IOException {
+            begin(type);
+            send();
+        }
+    }
+
+    static class FrameReader {
+        private final DataInputStream in;
+        private final FrameBuffer frame = new FrameBuffer();
+        private final DataInputStream payload = new DataInputStream(frame);
+
+        FrameReader(InputStream in) {
+            this.in = new DataInputStream(new BufferedInputStream(in));
+        }
+
+        /**
+         * Blocks until the next frame has been received.
+         *
+         * @return The type of the frame, its content is available through {@link #getPayload()}
+         */
+        byte next() throws IOException {
+            int length = in.readInt();
+            if (length <= 0 || length > MAX_FRAME_SIZE) throw new IOException("Invalid frame length " + length);
+            frame.fill(in, length);
+            return payload.readByte();
+        }
+
+        DataInputStream getPayload() {
+            return payload;
+        }
+    }
+
+    private static class FrameBuffer extends ByteArrayInputStream {
+
+        private FrameBuffer() {
+            super(new byte[INITIAL_BUFFER_SIZE]);
+        }
+
+        private void fill(DataInputStream in, int length) throws IOException {
+            if (buf.length < length) buf = new byte[Math.max(length, buf.length * 2)];
+            in.readFully(buf, 0, length);
+            pos = 0;
+            count = length;
+            mark = 0;
+        }
+    }
+}
@@ -2,20 +2,28 @@ package com.example.manager;
 
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class BotThread {
 
     private static final String namePrefix = "BotThread";
     private static final AtomicInteger threadNumber = new AtomicInteger(0);
+    private static final long SHUTDOWN_GRACE_PERIOD = 100;
 
     private final Object lock = new Object();
 
-    private final Object completion = new Object();
+    //Game loops wait for completion, a Condition does not pin them to their carrier if they run on virtual threads
+    private final ReentrantLock completionLock = new ReentrantLock();
+    private final Condition completion = completionLock.newCondition();
 
     private Thread worker;
 
-    private FutureTask<?> target = null;
+    private Runnable target = null;
+
+    private boolean shutdown = false;
 
     public BotThread() {
         worker = new Thread(Game.PLAYER_THREAD_GROUP, this::waitAndExecute);
@@ -23,20 +31,36 @@ public class BotThread {
     }
 
     private void waitAndExecute() {
-        while (!Thread.interrupted()) {
+        while (true) {
+            Runnable task;
             synchronized (lock) {
-                try {
-                    if (target == null)
+                while (target == null && !shutdown) {
+                    try {
                         lock.wait();
-                } catch (InterruptedException e) {
-                    break;
+                    } catch (InterruptedException ignored) {
+                        //Shutdown is signalled by the flag, interrupts only cancel running tasks
+                    }
                 }
+                if (shutdown) break;
+                task = target;
+            }
+            try {
+                task.run();
+            } catch (Throwable e) {
+                System.err.println("BotThread task failed with exception: " + e);
             }
-            target.run();
             synchronized (lock) {
-                synchronized (completion) {
+                //A worker, that has been replaced by forceStop, must not pick up further tasks
+                if (worker != Thread.currentThread()) return;
+                //Only taken while holding lock, so forceStop never stops a worker inside completionLock
+                completionLock.lock();
+                try {
+                    //Clears a cancellation, that arrived after the task returned
+                    Thread.interrupted();
                     target = null;
-                    completion.notifyAll();
+                    completion.signalAll();
+                } finally {
+                    completionLock.unlock();
                 }
             }
         }
@@ -44,55 +68,146 @@ public class BotThread {
 
     public Future<?> execute(Runnable runnable) {
         FutureTask<?> target = new FutureTask<>(runnable, null);
+        return submit(target) ? target : null;
+    }
+
+    /**
+     * Executes runnable without wrapping it into a {@link Future}. Used for tasks, that are submitted every turn.
+     * Exceptions thrown by runnable are only reported.
+     *
+     * @return False, if another task is still being executed
+     */
+    public boolean submit(Runnable runnable) {
         synchronized (lock) {
-            if (this.target != null) return null;
-            this.target = target;
+            if (this.target != null) return false;
+            this.target = runnable;
             lock.notify();
         }
-        return target;
+        return true;
     }
 
-    @SuppressWarnings("removal")
-    public void forceStop() {
+    /**
+     * Interrupts the task, that is currently executed, if there is one.
+     */
+    public void cancel() {
+        synchronized (lock) {
+            if (target != null) worker.interrupt();
+        }
+    }
 
+    /**
+     * Ends the task, that is currently executed, by stopping its worker. The worker is replaced by a new one, so the
+     * following tasks are executed even if the old worker could not be stopped.
+     *
+     * @return False, if the task is still running on the old worker, which has only been interrupted
+     */
+    public boolean forceStop() {
         synchronized (lock) {
-            synchronized (completion) {
-                if (target != null) target.cancel(true);
-                else return;
+            completionLock.lock();
+            try {
+                if (target != null) worker.interrupt();
+                else return true;
                 target = null;
+                completion.signalAll();
+            } finally {
+                completionLock.unlock();
             }
+            Thread stopped = worker;
+            worker = new Thread(Game.PLAYER_THREAD_GROUP, this::waitAndExecute);
+            worker.start();
+            //The old worker terminates once its task returns, as it has been replaced
+            return stop(stopped);
         }
-        worker.stop();
-        worker = new Thread(Game.PLAYER_THREAD_GROUP, this::waitAndExecute);
-        worker.start();
     }
 
+    /**
+     * Thread.stop is not supported since JDK 20, the thread then keeps running until its task returns.
+     *
+     * @return False, if the thread could not be stopped
+     */
     @SuppressWarnings("removal")
+    private static boolean stop(Thread thread) {
+        try {
+            thread.stop();
+            return true;
+        } catch (UnsupportedOperationException e) {
+            System.err.println("Unable to stop " + thread.getName() + ", it keeps running until its task returns");
+            return false;
+        }
+    }
+
+    /**
+     * Terminates the worker. A running task is interrupted and stopped, if it does not return within the grace period.
+     * Returns as soon as the worker has terminated.
+     */
     public void shutdown() {
+        Thread current;
         synchronized (lock) {
-            if (target != null) target.cancel(true);
+            if (target != null) worker.interrupt();
             target = null;
+            shutdown = true;
+            lock.notify();
+            current = worker;
         }
-        worker.interrupt();
         try {
-            Thread.sleep(1000);
+            current.join(SHUTDOWN_GRACE_PERIOD);
         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-        if (worker.isAlive())
+        if (current.isAlive())
             synchronized (lock) {
-                worker.stop();
+                stop(current);
+            }
+    }
+
+    /**
+     * @return The thread executing the tasks, it is replaced by {@link #forceStop()}
+     */
+    Thread getWorker() {
+        synchronized (lock) {
+            return worker;
+        }
+    }
+
+    /**
+     * Waits even if the calling thread is interrupted, e.g. a game thread, that is releasing its executor after it has
+     * been disposed. The interrupt is restored afterwards.
+     *
+     * @param timeout milliseconds to wait at most
+     * @return False, if a task is still being executed after the timeout
+     */
+    public boolean waitForCompletion(long timeout) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        boolean interrupted = false;
+        completionLock.lock();
+        try {
+            while (target != null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) return false;
+                try {
+                    completion.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
             }
+            return true;
+        } finally {
+            completionLock.unlock();
+            if (interrupted) Thread.currentThread().interrupt();
+        }
     }
 
     public void waitForCompletion() {
-        synchronized (completion) {
+        completionLock.lock();
+        try {
             if (target != null) {
                 try {
-                    completion.wait();
+                    completion.await();
                 } catch (InterruptedException ignored) {
                 }
             }
+        } finally {
+            completionLock.unlock();
         }
-
     }
 }
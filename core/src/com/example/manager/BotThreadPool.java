@@ -0,0 +1,92 @@
+package com.example.manager;
+
+import java.util.ArrayDeque;
+
+/**
+ * Keeps the {@link BotThread BotThreads} of completed games for the games started later.
+ * <p>
+ * A released thread is ready for the next game: a task, that is still running after a short grace period, is stopped,
+ * which replaces the worker. Threads, whose task could not be stopped, and idle threads beyond maxIdle are shut down.
+ */
+final class BotThreadPool {
+
+    private static final long RELEASE_GRACE_PERIOD = 20;
+
+    private final ArrayDeque<BotThread> idle = new ArrayDeque<>();
+    private final int maxIdle;
+    private boolean closed = false;
+    private long leased = 0;
+    private long reused = 0;
+
+    BotThreadPool(int maxIdle) {
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * @return An idle thread, or a new one if none is available
+     */
+    BotThread lease() {
+        synchronized (idle) {
+            leased++;
+            BotThread thread = idle.pollLast();
+            if (thread != null) {
+                reused++;
+                return thread;
+            }
+        }
+        return new BotThread();
+    }
+
+    /**
+     * Returns a thread, that must not be used by its previous game anymore.
+     */
+    void release(BotThread thread) {
+        //Games end as soon as the last turn has ended, usually while the task of this turn is still returning
+        thread.waitForCompletion(RELEASE_GRACE_PERIOD);
+        if (!thread.forceStop()) {
+            //The task of the previous game is still running, the thread is retired instead of being reused
+            thread.shutdown();
+            return;
+        }
+        synchronized (idle) {
+            if (!closed && idle.size() < maxIdle) {
+                idle.addLast(thread);
+                return;
+            }
+        }
+        thread.shutdown();
+    }
+
+    /**
+     * Shuts down all idle threads. Threads released afterwards are shut down immediately.
+     */
+    void close() {
+        BotThread[] threads;
+        synchronized (idle) {
+            closed = true;
+            threads = idle.toArray(new BotThread[0]);
+            idle.clear();
+        }
+        for (BotThread thread : threads) {
+            thread.shutdown();
+        }
+    }
+
+    int getIdleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (idle) {
+            return "BotThreadPool{" +
+                    "idle=" + idle.size() +
+                    ", maxIdle=" + maxIdle +
+                    ", leased=" + leased +
+                    ", reused=" + reused +
+                    '}';
+        }
+    }
+}
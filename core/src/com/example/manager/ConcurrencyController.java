@@ -0,0 +1,307 @@
+package com.example.manager;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adapts the number of concurrently active games to the CPU time they actually consume.
+ * <p>
+ * Every sample compares the CPU time spent by the simulation and bot threads of the active games to the CPU budget,
+ * which respects the quota of the container (cgroup v1 and v2) the JVM is running in. If the utilisation leaves the band
+ * of targetUtilisation +- hysteresis, the game limit is moved towards the number of games, that would meet the target.
+ * After each change the limit is kept for a cooldown, so the games paused or resumed by the {@link Manager} can settle,
+ * before the next decision is taken. Between two samples the last limit is returned without measuring the games.
+ */
+public class ConcurrencyController {
+
+    public static final double DEFAULT_TARGET_UTILISATION = 0.85;
+    public static final double DEFAULT_HYSTERESIS = 0.1;
+    public static final long DEFAULT_SAMPLE_INTERVAL = 1000;
+    public static final long DEFAULT_COOLDOWN = 3000;
+
+    //Bounds the limit for games that are mostly idle, e.g. waiting for human input
+    private static final int MAX_GAMES_PER_CORE = 4;
+
+    private static final Path CGROUP_V2_CPU_MAX = Paths.get("/sys/fs/cgroup/cpu.max");
+    private static final Path CGROUP_V1_CPU_QUOTA = Paths.get("/sys/fs/cgroup/cpu/cpu.cfs_quota_us");
+    private static final Path CGROUP_V1_CPU_PERIOD = Paths.get("/sys/fs/cgroup/cpu/cpu.cfs_period_us");
+
+    //The processor count and the cgroup quota are read again at most once per default sample interval
+    private static final long PROCESSORS_REFRESH_NANOS = TimeUnit.MILLISECONDS.toNanos(DEFAULT_SAMPLE_INTERVAL);
+    private static final Object PROCESSORS_LOCK = new Object();
+    private static double availableProcessors = -1;
+    private static long processorsReadNanos = 0;
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    private static final boolean THREAD_CPU_TIME_SUPPORTED = initThreadCpuTime();
+    private static final boolean OTHER_THREAD_CPU_TIME_SUPPORTED = THREAD_CPU_TIME_SUPPORTED && THREAD_MX_BEAN.isThreadCpuTimeSupported();
+    private static final boolean THREAD_ALLOCATION_SUPPORTED = initThreadAllocatedMemory();
+
+    private final double targetUtilisation;
+    private final double hysteresis;
+    private final long sampleInterval;
+    private final long sampleIntervalNanos;
+    private final long cooldownNanos;
+
+    private final Map<Object, Long> lastCpuTimes = new HashMap<>();
+    private long lastSampleNanos = 0;
+    private long lastChangeNanos = 0;
+    private int gameLimit = 0;
+    private double utilisation = 0;
+    private double coresPerGame = 0;
+
+    public ConcurrencyController() {
+        this(DEFAULT_TARGET_UTILISATION, DEFAULT_HYSTERESIS, DEFAULT_SAMPLE_INTERVAL, DEFAULT_COOLDOWN);
+    }
+
+    /**
+     * @param targetUtilisation share of the CPU budget the active games should use, in the range (0, 1]
+     * @param hysteresis        deviation from the target, that is tolerated without changing the limit
+     * @param sampleInterval    milliseconds between two samples
+     * @param cooldown          milliseconds the limit is kept after it has been changed
+     */
+    public ConcurrencyController(double targetUtilisation, double hysteresis, long sampleInterval, long cooldown) {
+        if (targetUtilisation <= 0 || targetUtilisation > 1)
+            throw new IllegalArgumentException("Target utilisation has to be in the range (0, 1]");
+        if (hysteresis < 0 || sampleInterval <= 0 || cooldown < 0)
+            throw new IllegalArgumentException("Hysteresis, sample interval and cooldown must not be negative");
+        this.targetUtilisation = targetUtilisation;
+        this.hysteresis = hysteresis;
+        this.sampleInterval = sampleInterval;
+        this.sampleIntervalNanos = TimeUnit.MILLISECONDS.toNanos(sampleInterval);
+        this.cooldownNanos = TimeUnit.MILLISECONDS.toNanos(cooldown);
+    }
+
+    private static boolean initThreadCpuTime() {
+        try {
+            if (!THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()) return false;
+            if (!THREAD_MX_BEAN.isThreadCpuTimeEnabled()) THREAD_MX_BEAN.setThreadCpuTimeEnabled(true);
+            return true;
+        } catch (UnsupportedOperationException | SecurityException e) {
+            System.err.println("Thread CPU time is not available, adaptive concurrency will not be able to measure the load: " + e);
+            return false;
+        }
+    }
+
+    private static boolean initThreadAllocatedMemory() {
+        if (!(THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean)) return false;
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+        try {
+            if (!bean.isThreadAllocatedMemorySupported()) return false;
+            if (!bean.isThreadAllocatedMemoryEnabled()) bean.setThreadAllocatedMemoryEnabled(true);
+            return true;
+        } catch (UnsupportedOperationException | SecurityException e) {
+            System.err.println("Thread allocations are not available, allocations of bots will not be recorded: " + e);
+            return false;
+        }
+    }
+
+    /**
+     * @return CPU time of the calling thread in nanoseconds, or -1 if it can not be measured (e.g. on virtual threads)
+     */
+    static long currentThreadCpuTime() {
+        if (!THREAD_CPU_TIME_SUPPORTED) return -1;
+        try {
+            return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+        } catch (UnsupportedOperationException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @param threadId id of a platform thread
+     * @return CPU time of the thread in nanoseconds, or -1 if it can not be measured or the thread is not alive
+     */
+    static long threadCpuTime(long threadId) {
+        if (!OTHER_THREAD_CPU_TIME_SUPPORTED) return -1;
+        try {
+            return THREAD_MX_BEAN.getThreadCpuTime(threadId);
+        } catch (UnsupportedOperationException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @param threadId id of a platform thread
+     * @return Bytes the thread has allocated on the heap since it has been started, or -1 if they can not be measured
+     * or the thread is not alive
+     */
+    static long threadAllocatedBytes(long threadId) {
+        if (!THREAD_ALLOCATION_SUPPORTED) return -1;
+        try {
+            return ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).getThreadAllocatedBytes(threadId);
+        } catch (UnsupportedOperationException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return Number of processors this JVM may use, limited by the CPU quota of its cgroup if there is one. The value
+     * may be up to one default sample interval old
+     */
+    public static double getAvailableProcessors() {
+        long now = System.nanoTime();
+        synchronized (PROCESSORS_LOCK) {
+            if (availableProcessors < 0 || now - processorsReadNanos >= PROCESSORS_REFRESH_NANOS) {
+                double processors = Runtime.getRuntime().availableProcessors();
+                double quota = readCgroupCpuQuota();
+                availableProcessors = quota > 0 ? Math.min(processors, quota) : processors;
+                processorsReadNanos = now;
+            }
+            return availableProcessors;
+        }
+    }
+
+    /**
+     * @return CPU quota in processors, or -1 if no quota is set or the cgroup filesystem is not available
+     */
+    static double readCgroupCpuQuota() {
+        try {
+            if (Files.isReadable(CGROUP_V2_CPU_MAX)) {
+                //Format: "$MAX $PERIOD", $MAX is "max" if unlimited
+                String[] values = Files.readAllLines(CGROUP_V2_CPU_MAX).get(0).trim().split("\\s+");
+                return parseQuota(values[0], values.length > 1 ? values[1] : "100000");
+            }
+            if (Files.isReadable(CGROUP_V1_CPU_QUOTA) && Files.isReadable(CGROUP_V1_CPU_PERIOD)) {
+                return parseQuota(Files.readAllLines(CGROUP_V1_CPU_QUOTA).get(0).trim(),
+                        Files.readAllLines(CGROUP_V1_CPU_PERIOD).get(0).trim());
+            }
+        } catch (IOException | IndexOutOfBoundsException e) {
+            System.err.println("Unable to read the cgroup CPU quota: " + e);
+        }
+        return -1;
+    }
+
+    static double parseQuota(String quota, String period) {
+        if (quota.equals("max")) return -1;
+        try {
+            long quotaMicros = Long.parseLong(quota);
+            long periodMicros = Long.parseLong(period);
+            if (quotaMicros <= 0 || periodMicros <= 0) return -1;
+            return (double) quotaMicros / periodMicros;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Samples the active games and returns the number of games, that should be active. Until the sample interval has
+     * passed since the last sample, the games are not measured and the current limit is returned.
+     *
+     * @param activeGames the currently active games
+     * @param demand      whether there are paused or scheduled games waiting for a free slot
+     * @param cpuBudget   processors the games may use
+     * @return The new game limit, at least 1
+     */
+    synchronized int update(List<Executable> activeGames, boolean demand, double cpuBudget) {
+        long now = System.nanoTime();
+        if (gameLimit > 0 && !isSampleDue(now)) return gameLimit;
+        Map<Object, Long> cpuTimes = new HashMap<>();
+        for (Executable game : activeGames) {
+            long cpuTime = game.getCpuTime();
+            if (cpuTime >= 0) cpuTimes.put(game, cpuTime);
+        }
+        return update(cpuTimes, activeGames.size(), demand, cpuBudget, now);
+    }
+
+    private boolean isSampleDue(long nowNanos) {
+        return lastSampleNanos == 0 || nowNanos - lastSampleNanos >= sampleIntervalNanos;
+    }
+
+    synchronized int update(Map<?, Long> cpuTimes, int activeGames, boolean demand, double cpuBudget, long nowNanos) {
+        int maxLimit = Math.max(1, (int) (cpuBudget * MAX_GAMES_PER_CORE));
+        if (gameLimit == 0) {
+            //Start with the static estimate until the first measurement is available
+            gameLimit = Math.max(1, (int) (cpuBudget / Executable.REQUIRED_THREAD_COUNT));
+            lastChangeNanos = nowNanos;
+        }
+        gameLimit = Math.min(gameLimit, maxLimit);
+        if (!isSampleDue(nowNanos)) return gameLimit;
+
+        long elapsed = nowNanos - lastSampleNanos;
+        long consumed = 0;
+        int sampledGames = 0;
+        for (Map.Entry<?, Long> entry : cpuTimes.entrySet()) {
+            Long previous = lastCpuTimes.get(entry.getKey());
+            //Games started since the last sample have no reference point yet
+            if (previous == null) continue;
+            consumed += Math.max(0, entry.getValue() - previous);
+            sampledGames++;
+        }
+        lastCpuTimes.clear();
+        lastCpuTimes.putAll(cpuTimes);
+        boolean firstSample = lastSampleNanos == 0;
+        lastSampleNanos = nowNanos;
+        if (firstSample || sampledGames == 0 || elapsed <= 0) return gameLimit;
+
+        double usedCores = (double) consumed / elapsed;
+        coresPerGame = usedCores / sampledGames;
+        //Games without measurement are assumed to behave like the sampled ones
+        utilisation = coresPerGame * activeGames / cpuBudget;
+        if (nowNanos - lastChangeNanos < cooldownNanos) return gameLimit;
+
+        int targetLimit = coresPerGame > 0 ? (int) Math.min(maxLimit, cpuBudget * targetUtilisation / coresPerGame) : maxLimit;
+        int newLimit = gameLimit;
+        if (utilisation > targetUtilisation + hysteresis) {
+            newLimit = Math.max(1, Math.min(gameLimit - 1, targetLimit));
+        } else if (utilisation < targetUtilisation - hysteresis && demand && activeGames >= gameLimit) {
+            //Grow at most by factor two per step, the estimate gets worse the further it is extrapolated
+            newLimit = Math.min(maxLimit, Math.min(gameLimit * 2, Math.max(gameLimit + 1, targetLimit)));
+        }
+        if (newLimit != gameLimit) {
+            System.out.printf("Concurrency adapted from %d to %d games (utilisation %.2f, %.2f cores per game)\n",
+                    gameLimit, newLimit, utilisation, coresPerGame);
+            gameLimit = newLimit;
+            lastChangeNanos = nowNanos;
+        }
+        return gameLimit;
+    }
+
+    public synchronized int getGameLimit() {
+        return gameLimit;
+    }
+
+    /**
+     * @return Share of the CPU budget used by the active games at the last sample
+     */
+    public synchronized double getUtilisation() {
+        return utilisation;
+    }
+
+    /**
+     * @return Average number of processors used by a single game at the last sample
+     */
+    public synchronized double getCoresPerGame() {
+        return coresPerGame;
+    }
+
+    public double getTargetUtilisation() {
+        return targetUtilisation;
+    }
+
+    /**
+     * @return Milliseconds between two samples
+     */
+    public long getSampleInterval() {
+        return sampleInterval;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ConcurrencyController{" +
+                "targetUtilisation=" + targetUtilisation +
+                ", hysteresis=" + hysteresis +
+                ", gameLimit=" + gameLimit +
+                ", utilisation=" + utilisation +
+                ", coresPerGame=" + coresPerGame +
+                '}';
+    }
+}
@@ -2,7 +2,12 @@ package com.example.manager;
 
 import com.example.manager.command.*;
 import com.example.simulation.GameCharacterController;
-import com.example.simulation.GameState;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Provides an access-controlled interface to send commands to players
@@ -13,18 +18,32 @@ import com.example.simulation.GameState;
 public class Controller {
 
     private int uses;
-    private Game game;
+    private final Consumer<Command> sink;
     private GameCharacterController gcController;
     private int team;
+    private List<Command> batch = null;
 
-    protected Controller(Game game, GameCharacterController gcController, GameState stateCopy, int uses) {
+    protected Controller(Game game, GameCharacterController gcController, int uses) {
 //        System.out.println("Created new Controller: " + this);
-        this.game = game;
+        this.sink = game::queueCommand;
         this.gcController = gcController;
         this.team = gcController.getTeam();
         this.uses = uses;
     }
 
+    /**
+     * Creates a controller for a bot running in a separate process. Commands are handed to sink instead of a game.
+     *
+     * @param sink receives every command within the remaining uses
+     * @param team the team of the character, that is controlled
+     * @param uses number of commands, that may be issued
+     */
+    Controller(Consumer<Command> sink, int team, int uses) {
+        this.sink = sink;
+        this.team = team;
+        this.uses = uses;
+    }
+
     /**
      * @return Das Team, zu welchem dieser Controller gehört.
      */
@@ -56,14 +75,58 @@ public class Controller {
     }
 
 
+    /**
+     * Beginnt einen Stapel von Befehlen.
+     * Alle folgenden Befehle werden gesammelt, statt einzeln übermittelt zu werden, bis {@link #submitBatch()} aufgerufen wird.
+     * Jeder Befehl im Stapel zählt einzeln zu den Nutzungen.
+     * Ist bereits ein Stapel offen, hat der Aufruf keine Wirkung.
+     */
+    public void startBatch() {
+        if (batch == null) batch = new ArrayList<>();
+    }
+
+    /**
+     * Übermittelt alle Befehle des offenen Stapels gemeinsam.
+     * Die Befehle werden direkt nacheinander ausgeführt und ihre Animationen nacheinander abgespielt.
+     * Befehle eines Stapels, der bis zum Ende des Zuges nicht übermittelt wurde, verfallen.
+     */
+    public void submitBatch() {
+        List<Command> commands = batch;
+        batch = null;
+        if (commands == null || commands.isEmpty()) return;
+        sink.accept(commands.size() == 1 ? commands.get(0) : new BatchCommand(gcController, commands));
+    }
+
     /**
      * Internal utility method.
-     * Controls the remaining uses and submits cmd to the game.
+     * Controls the remaining uses and submits cmd to the game, or adds it to the open batch.
      *
      * @param cmd the command to be queued
      */
     private void queue(Command cmd) {
-        if (uses-- > 0) game.queueCommand(cmd);
+        if (uses-- <= 0) return;
+        if (batch != null) batch.add(cmd);
+        else sink.accept(cmd);
+    }
+
+    /**
+     * Internal utility method.
+     * Queues a command, that has been issued by a bot in a separate process, with the same restrictions as a local call.
+     *
+     * @param in the encoded command
+     */
+    void queueEncoded(DataInput in) throws IOException {
+        Command cmd = CommandCodec.read(in, gcController);
+        if (!(cmd instanceof BatchCommand)) {
+            queue(cmd);
+            return;
+        }
+        //Every command of a batch counts towards the uses
+        startBatch();
+        for (Command nested : ((BatchCommand) cmd).getCommands()) {
+            queue(nested);
+        }
+        submitBatch();
     }
 
     /**
@@ -71,7 +134,8 @@ public class Controller {
      */
     protected void deactivate() {
         uses = -1;
-        gcController.deactivate();
+        batch = null;
+        if (gcController != null) gcController.deactivate();
     }
 
 }
@@ -0,0 +1,44 @@
+package com.example.manager;
+
+/**
+ * Misst die verbleibende Rechenzeit (CPU-Zeit) eines Bots im aktuellen Zug.
+ * Zeit, in der der Bot nicht rechnet, z.B. weil andere Spiele den Prozessor belegen, wird nicht angerechnet.
+ * <p>
+ * Falls die CPU-Zeit von der JVM nicht gemessen werden kann, wird die vergangene Zeit gemessen.
+ */
+public class CpuTimer extends Timer {
+
+    private final long threadId;
+    private final long budget;
+    private final long startCpuTime;
+
+    /**
+     * @param budgetNanos CPU time, that may be spent by thread
+     * @param thread      the thread executing the turn
+     */
+    CpuTimer(long budgetNanos, Thread thread) {
+        super(budgetNanos);
+        this.budget = budgetNanos;
+        this.threadId = thread.getId();
+        this.startCpuTime = ConcurrencyController.threadCpuTime(threadId);
+    }
+
+    /**
+     * @return Verbleibende CPU-Zeit in Nanosekunden, negativ wenn sie überschritten wurde
+     */
+    @Override
+    public long getRemainingNanos() {
+        if (startCpuTime < 0) return super.getRemainingNanos();
+        long cpuTime = ConcurrencyController.threadCpuTime(threadId);
+        //The thread has terminated, e.g. after being stopped
+        if (cpuTime < 0) return super.getRemainingNanos();
+        return budget - (cpuTime - startCpuTime);
+    }
+
+    /**
+     * @return Whether CPU time is measured, false if this timer falls back to wall-clock time
+     */
+    boolean isMeasuringCpuTime() {
+        return startCpuTime >= 0;
+    }
+}
@@ -40,6 +40,8 @@ public abstract class Executable {
     protected GameConfig config;
     protected final boolean saveReplay;
 
+    private Run run;
+
 
     protected Executable(GameConfig config) {
         this.config = config;
@@ -68,6 +70,24 @@ public abstract class Executable {
         pendingShutdown = true;
     }
 
+    /**
+     * @return The run this game belongs to, or null if it was scheduled directly
+     */
+    public Run getRun() {
+        return run;
+    }
+
+    protected void setRun(Run run) {
+        this.run = run;
+    }
+
+    /**
+     * @return CPU time in nanoseconds spent by the threads of this game so far, or -1 if it is not measured
+     */
+    protected long getCpuTime() {
+        return -1;
+    }
+
     public List<HumanPlayer> getHumanList() {
         return humanList;
     }
@@ -0,0 +1,19 @@
+package com.example.manager;
+
+import java.util.List;
+
+/**
+ * Runs games in the order they have been scheduled.
+ */
+public class FifoSchedulingPolicy implements SchedulingPolicy {
+
+    @Override
+    public Executable select(List<Executable> candidates) {
+        return candidates.get(0);
+    }
+
+    @Override
+    public String toString() {
+        return "FifoSchedulingPolicy";
+    }
+}
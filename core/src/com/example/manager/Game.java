@@ -13,17 +13,23 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class Game extends Executable {
 
 
-    protected static final ThreadGroup PLAYER_THREAD_GROUP = new ThreadGroup("players");
+    protected static final ThreadGroup PLAYER_THREAD_GROUP = createPlayerThreadGroup();
 
+    private static final TimerWheel TURN_WATCHDOG = TimerWheel.getShared();
 
-    protected final Object schedulingLock = new Object();
+    //CPU time of the bot thread, bots running in a separate process are timed by wall-clock time
     private static final int AI_EXECUTION_TIMEOUT = 500;
     private static final int AI_EXECUTION_GRACE_PERIODE = 100;
+    //CPU time does not advance while a bot is blocked, e.g. sleeping, this wall-clock limit ends such turns
+    private static final int AI_EXECUTION_WALL_CLOCK_CEILING = 2000;
     private static final int AI_INIT_TIMEOUT = 1000;
     private static final int AI_CONTROLLER_USES = 200;
 
@@ -40,6 +46,16 @@ public class Game extends Executable {
 
     }
 
+    /**
+     * Pooled bot threads are replaced and shut down while the program runs, so the group is attached to the system
+     * group. Below a daemon group of the initializing thread it could be destroyed together with that group.
+     */
+    private static ThreadGroup createPlayerThreadGroup() {
+        ThreadGroup root = Thread.currentThread().getThreadGroup();
+        while (root.getParent() != null) root = root.getParent();
+        return new ThreadGroup(root, "players");
+    }
+
     private GameResults gameResults;
     private Simulation simulation;
     private GameState state;
@@ -50,10 +66,19 @@ public class Game extends Executable {
     private static final AtomicInteger gameNumber = new AtomicInteger(0);
 
     private BotThread executor;
+    private final AtomicBoolean executorReleased = new AtomicBoolean(false);
+    private ManagerMetrics metrics;
+    private final LatencyStats turnLatency = new LatencyStats();
+    private final AtomicLong cpuTime = new AtomicLong(0);
     private final List<HumanPlayer> humanList = new ArrayList<>();
 
-    private final BlockingQueue<Command> commandQueue = new ArrayBlockingQueue<>(256);
+    private final MpscRingBuffer<Command> commandQueue = new MpscRingBuffer<>(256);
     private Thread simulationThread;
+    private TurnContext turnContext;
+    private final boolean virtualThreads;
+    private final boolean isolatedBots;
+    private final long allocationLimit;
+    private final long seed;
 
 
     protected Game(GameConfig config) {
@@ -66,13 +91,19 @@ public class Game extends Executable {
             config.players.addAll(CampaignResources.getEnemies(config.mapName));
             config.teamCount = config.players.size();
         }
+        virtualThreads = config.virtualThreads;
+        isolatedBots = config.isolatedBots;
+        allocationLimit = config.botAllocationLimit;
+        seed = config.seed;
         gameResults = new GameResults(config);
         gameResults.setStatus(getStatus());
     }
 
     private void create() {
 
-        simulation = new Simulation(config.gameMode, config.mapName, config.teamCount);
+        //Nobody consumes the action logs of a game without animation or replay
+        simulation = new Simulation(config.gameMode, config.mapName, config.teamCount, gui || saveReplay, seed);
+        simulation.setStalemateRules(config.stalemateRules);
         state = simulation.getState();
         if (saveReplay)
             gameResults.setInitialState(state);
@@ -83,7 +114,11 @@ public class Game extends Executable {
             final Player curPlayer;
             executor.waitForCompletion();
             try {
-                players[i] = (Player) config.players.get(i).getDeclaredConstructors()[0].newInstance();
+                Class<? extends Player> playerClass = config.players.get(i);
+                if (isolatedBots && Bot.class.isAssignableFrom(playerClass))
+                    players[i] = new RemoteBot(playerClass, Manager.getManager().getBotProcessPool(), seed);
+                else
+                    players[i] = (Player) playerClass.getDeclaredConstructors()[0].newInstance();
                 curPlayer = players[i];
             } catch (InvocationTargetException | InstantiationException | IllegalAccessException e) {
                 throw new RuntimeException(e);
@@ -94,9 +129,11 @@ public class Game extends Executable {
                     humanList.add((HumanPlayer) curPlayer);
                     break;
                 case AI:
+                    //Starting a process must not count towards the initialization timeout
+                    if (curPlayer instanceof RemoteBot) ((RemoteBot) curPlayer).prepare();
                     Future<?> future = executor.execute(() -> {
                         Thread.currentThread().setName("Init_Thread_Player_" + curPlayer.getName());
-                        ((Bot) curPlayer).setRnd(Manager.getSeed());
+                        if (curPlayer instanceof Bot) ((Bot) curPlayer).setRnd(seed);
                         curPlayer.init(state);
                     });
                     try {
@@ -109,7 +146,8 @@ public class Game extends Executable {
                         System.out.println("bot failed initialization with exception: " + e.getCause());
                     } catch (TimeoutException e) {
                         future.cancel(true);
-                        executor.forceStop();
+                        forceStop(curPlayer);
+                        metrics.recordBotTimeout();
 
                         System.out.println("bot" + i + "(" + curPlayer.getName() + ") initialization surpassed timeout");
                     }
@@ -125,13 +163,13 @@ public class Game extends Executable {
         synchronized (schedulingLock) {
             if (getStatus() == Status.ABORTED) return;
             setStatus(Status.ACTIVE);
-            executor = new BotThread();
+            metrics = Manager.getManager().getMetrics();
+            executor = Manager.getManager().getBotThreadPool().lease();
             create();
             //Init the Log Processor
             if (gui) animationLogProcessor.init(state.copy(), getPlayerNames(), getSkins(players));
             //Run the Game
-            simulationThread = new Thread(this::run);
-            simulationThread.setName("Game_Simulation_Thread");
+            simulationThread = GameThreads.newThread(virtualThreads, this::run, "Game_Simulation_Thread");
             simulationThread.setUncaughtExceptionHandler(this::crashHandler);
             simulationThread.start();
         }
@@ -163,10 +201,20 @@ public class Game extends Executable {
      * Controls Player Execution
      */
     private void run() {
+        try {
+            playTurns();
+        } finally {
+            //Returned by the game thread itself, so this game can not use the executor after another game leased it
+            releaseExecutor();
+        }
+    }
+
+    private void playTurns() {
         Thread.currentThread().setName("Game_Thread_" + gameNumber.getAndIncrement());
+        turnContext = new TurnContext();
         while (!pendingShutdown && state.isActive()) {
             synchronized (schedulingLock) {
-                if (getStatus() == Status.PAUSED)
+                while (getStatus() == Status.PAUSED)
                     try {
                         schedulingLock.wait();
 
@@ -175,6 +223,8 @@ public class Game extends Executable {
                     }
             }
 
+            long turnStart = System.nanoTime();
+            long simulationCpuStart = ConcurrencyController.currentThreadCpuTime();
             ActionLog firstLog = simulation.clearAndReturnActionLog();
             if (saveReplay)
                 gameResults.addActionLog(firstLog);
@@ -183,92 +233,23 @@ public class Game extends Executable {
             }
 
             GameCharacterController gcController = simulation.getController();
-            int currentPlayerIndex = gcController.getTeam();
-
-            Player currentPlayer = players[currentPlayerIndex];
-            GameState stateCopy = state.copy();
-            Controller controller = new Controller(this, gcController, stateCopy, currentPlayer.getType() == Player.PlayerType.Human ? HUMAN_CONTROLLER_USES : AI_CONTROLLER_USES);
+            Player currentPlayer = players[gcController.getTeam()];
 
             executor.waitForCompletion();
-            Thread futureExecutor;
-            Future<?> future;
+            turnContext.begin(gcController, currentPlayer);
             switch (currentPlayer.getType()) {
                 case Human:
-                    future = executor.execute(() -> {
-                        Thread.currentThread().setName("Run_Thread_Player_Human");
-                        simulation.setTurnTimer(new Timer(1000 * HUMAN_EXECUTION_TIMEOUT));
-                        currentPlayer.executeTurn(stateCopy, controller);
-                    });
-                    futureExecutor = new Thread(() -> {
-                        inputGenerator.activateTurn((HumanPlayer) currentPlayer);
-                        try {
-                            Thread.currentThread().setName("Future_Executor_Player_Human");
-                            if (isDebug) future.get();
-                            else
-                                future.get(HUMAN_EXECUTION_TIMEOUT + HUMAN_EXECUTION_GRACE_PERIODE, TimeUnit.MILLISECONDS);
-                        } catch (InterruptedException e) {
-                            future.cancel(true);//Executor was interrupted: Interrupt Player
-                            System.out.println("bot was interrupted");
-                            e.printStackTrace(System.err);
-                        } catch (ExecutionException e) {
-                            System.err.println("human player failed with exception: " + e.getCause());
-                            e.printStackTrace();
-                        } catch (TimeoutException e) {
-                            future.cancel(true);
-                            executor.forceStop();
-                            System.err.println("player" + currentPlayerIndex + "(" + currentPlayer.getName() + ") computation surpassed timeout");
-                        }
-                        inputGenerator.endTurn();
-                        //Add Empty command to break command Execution
-                        try {
-                            commandQueue.put(new EndTurnCommand(gcController));
-                        } catch (InterruptedException e) {
-                            throw new RuntimeException(e);
-                        }
-                    });
+                    inputGenerator.activateTurn((HumanPlayer) currentPlayer);
+                    executor.submit(turnContext.humanTask);
                     break;
                 case AI:
-                    future = executor.execute(() -> {
-                        Thread.currentThread().setName("Run_Thread_Player_" + currentPlayer.getName());
-                        simulation.setTurnTimer(new Timer(1000 * AI_EXECUTION_TIMEOUT));
-                        currentPlayer.executeTurn(stateCopy, controller);
-                    });
-                    futureExecutor = new Thread(() -> {
-                        Thread.currentThread().setName("Future_Executor_Player_" + currentPlayer.getName());
-                        try {
-                            if (isDebug) future.get();
-                            else
-                                future.get(AI_EXECUTION_TIMEOUT + AI_EXECUTION_GRACE_PERIODE, TimeUnit.MILLISECONDS);
-                        } catch (InterruptedException e) {
-                            future.cancel(true);//Executor was interrupted: Interrupt Bot
-                            System.out.println("bot was interrupted");
-                            e.printStackTrace(System.err);
-                        } catch (ExecutionException e) {
-                            System.out.println("bot failed with exception: " + e.getCause());
-                            e.printStackTrace();
-                            System.err.println("The failed player has been penalized!");
-                            simulation.penalizeCurrentPlayer();
-                        } catch (TimeoutException e) {
-                            future.cancel(true);
-                            executor.forceStop();
-
-                            System.out.println("player" + currentPlayerIndex + "(" + currentPlayer.getName() + ") computation surpassed timeout");
-                            System.err.println("The failed player has been penalized!");
-                            simulation.penalizeCurrentPlayer();
-                        }
-                        //Add Empty command to break command Execution
-                        try {
-                            commandQueue.put(new EndTurnCommand(gcController));
-                        } catch (InterruptedException e) {
-                            throw new RuntimeException(e);
-                        }
-                    });
+                    executor.submit(turnContext.botTask);
                     break;
                 default:
                     throw new IllegalStateException("Player of type: " + currentPlayer.getType() + " can not be executed by the Manager");
             }
+            if (!isDebug) turnContext.scheduleDeadline();
 
-            futureExecutor.start();
             ActionLog log = simulation.clearAndReturnActionLog();
             if (saveReplay)
                 gameResults.addActionLog(log);
@@ -281,51 +262,38 @@ public class Game extends Executable {
 
                     Command nextCmd = commandQueue.take();
                     if (nextCmd.isEndTurn()) break;
-                    //Contains action produced by the commands execution
-                    log = nextCmd.run();
-                    if (log == null) continue;
-                    if (saveReplay)
-                        gameResults.addActionLog(log);
-                    if (gui) {
-                        animationLogProcessor.animate(log);
-                        //animationLogProcessor.awaitNotification(); ToDo: discuss synchronisation for human players
-                    }
+                    //Contains action produced by the commands execution, one per command of a batch
+                    nextCmd.run(this::onCommandLog);
                 }
             } catch (InterruptedException e) {
                 System.err.println("Interrupted while processing cmds");
                 e.printStackTrace(System.err);
                 if (pendingShutdown) {
-                    futureExecutor.interrupt();
+                    turnContext.cancelDeadline();
                     break;
                 }
                 throw new RuntimeException(e);
             }
-            controller.deactivate();
+            turnContext.controller.deactivate();
+            long allocated = turnContext.getAllocatedBytes();
+            if (allocated >= 0) gameResults.addTurnAllocation(gcController.getTeam(), allocated);
 
             //Contains actions produced by ending the turn (after last command is executed)
             ActionLog finalLog = simulation.endTurn();
+            long turnDuration = System.nanoTime() - turnStart;
+            turnLatency.record(turnDuration);
+            metrics.recordTurn(turnDuration);
             if (saveReplay)
                 gameResults.addActionLog(finalLog);
             if (gui) {
                 animationLogProcessor.animate(finalLog);
                 animationLogProcessor.awaitNotification();
             }
+            addCpuTime(simulationCpuStart);
             if (pendingShutdown) {
-                executor.shutdown();
-                futureExecutor.interrupt();
+                turnContext.cancelDeadline();
                 break;
             }
-            try {
-                futureExecutor.join(); //Wait for the executor to shutdown to prevent spamming the executor service
-            } catch (InterruptedException e) {
-                System.out.print("Interrupted while shutting down future executor\n");
-                e.printStackTrace(System.err);
-                if (pendingShutdown) {
-                    futureExecutor.interrupt();
-                    break;
-                }
-                throw new RuntimeException(e);
-            }
         }
         scores = state.getScores();
         setStatus(Status.COMPLETED);
@@ -341,12 +309,16 @@ public class Game extends Executable {
         if (simulationThread != null) {
             simulationThread.interrupt();
         }
-        if (executor!= null)
-            executor.shutdown();
+        //Otherwise the executor is released by the simulation thread, once it has terminated
+        if (simulationThread == null || !simulationThread.isAlive())
+            releaseExecutor();
         if (state!=null) scores = state.getScores();
+        if (players != null)
+            for (Player player : players) {
+                if (player instanceof RemoteBot) ((RemoteBot) player).release();
+            }
         simulation = null;
         state = null;
-        executor = null;
         simulationThread = null;
         gameResults = null;
     }
@@ -355,8 +327,336 @@ public class Game extends Executable {
         return humanList;
     }
 
+    /**
+     * Returns the executor to the pool of the Manager, a task of this game, that is still running, is stopped.
+     */
+    private void releaseExecutor() {
+        if (executor == null || !executorReleased.compareAndSet(false, true)) return;
+        Manager.getManager().getBotThreadPool().release(executor);
+    }
+
+    /**
+     * Stops a player, that exceeded its deadline. Bots in a separate process are killed instead of stopping the executing thread.
+     */
+    private void forceStop(Player player) {
+        try {
+            if (player instanceof RemoteBot) ((RemoteBot) player).recycle();
+            else executor.forceStop();
+        } catch (RuntimeException e) {
+            //The turn ends and the player is penalized anyway
+            System.err.println("Unable to stop player " + player.getName() + ": " + e);
+        }
+    }
+
+    private void onCommandLog(ActionLog log) {
+        if (saveReplay)
+            gameResults.addActionLog(log);
+        if (gui) {
+            animationLogProcessor.animate(log);
+            //animationLogProcessor.awaitNotification(); ToDo: discuss synchronisation for human players
+        }
+    }
+
+    private void addCpuTime(long startCpuTime) {
+        if (startCpuTime < 0) return;
+        long endCpuTime = ConcurrencyController.currentThreadCpuTime();
+        if (endCpuTime >= startCpuTime) cpuTime.addAndGet(endCpuTime - startCpuTime);
+    }
+
+    @Override
+    protected long getCpuTime() {
+        return cpuTime.get();
+    }
+
+    /**
+     * @return Durations of the turns played in this game, from handing the turn to the player until the turn has ended
+     */
+    public LatencyStats getTurnLatency() {
+        return turnLatency;
+    }
+
+    /**
+     * State of the turn, that is currently played. Allocated once per game and reset at the start of every turn, so the
+     * tasks handed to the {@link BotThread} and the watchdog read the turn they belong to from here, instead of being
+     * created for every turn. Ends each turn exactly once, either when the player returns or when its deadline expires.
+     */
+    private class TurnContext {
+        private static final int IDLE = 0;
+        private static final int PRODUCING = 1;
+        private static final int CANCELLED = 2;
+
+        private final AtomicInteger openTurn = new AtomicInteger(-1);
+        //Whether the player is queueing a command, it must not be stopped between claiming and publishing a slot
+        private final AtomicInteger producer = new AtomicInteger(IDLE);
+        //Timed out player, that is stopped by itself once its command is published, survives the begin of the next turn
+        private final AtomicReference<Player> pendingStop = new AtomicReference<>();
+        private final String[] threadNames = new String[players.length];
+        private volatile int turn = -1;
+        private final AtomicReference<TimerWheel.Timeout> deadline = new AtomicReference<>();
+        private Timer turnTimer;
+        private long turnStartNanos;
+        private long graceNanos;
+        private long ceilingNanos;
+        private GameCharacterController gcController;
+        private Player player;
+        private int playerIndex;
+        private GameState stateCopy;
+        private Controller controller;
+        private Thread allocatingThread;
+        private long allocationStart;
+
+        private final Runnable botTask = this::executeBotTurn;
+        private final Runnable humanTask = this::executeHumanTurn;
+        private final Runnable deadlineTask = this::expire;
+        private final Runnable endHumanTurn = () -> inputGenerator.endTurn();
+        private final Runnable onBotTimeout = this::onBotTimeout;
+        private final Runnable onHumanTimeout = this::onHumanTimeout;
+        private final Runnable onAllocationLimit = this::onAllocationLimit;
+
+        private TurnContext() {
+            for (int i = 0; i < players.length; i++) {
+                threadNames[i] = players[i].getType() == Player.PlayerType.Human ? "Run_Thread_Player_Human" : "Run_Thread_Player_" + players[i].getName();
+            }
+        }
+
+        /**
+         * Resets the context for the next turn and starts the turn timer. The turn is open for {@link #end} afterwards.
+         */
+        private void begin(GameCharacterController gcController, Player player) {
+            int index = gcController.getTeam();
+            boolean human = player.getType() == Player.PlayerType.Human;
+            turnStartNanos = System.nanoTime();
+            if (human) {
+                turnTimer = new Timer(TimeUnit.MILLISECONDS.toNanos(HUMAN_EXECUTION_TIMEOUT));
+                graceNanos = TimeUnit.MILLISECONDS.toNanos(HUMAN_EXECUTION_GRACE_PERIODE);
+                ceilingNanos = TimeUnit.MILLISECONDS.toNanos(HUMAN_EXECUTION_TIMEOUT + HUMAN_EXECUTION_GRACE_PERIODE);
+            } else {
+                long budget = TimeUnit.MILLISECONDS.toNanos(AI_EXECUTION_TIMEOUT);
+                //The CPU time of a bot in a separate process can not be observed from here
+                turnTimer = player instanceof RemoteBot ? new Timer(budget) : new CpuTimer(budget, executor.getWorker());
+                graceNanos = TimeUnit.MILLISECONDS.toNanos(AI_EXECUTION_GRACE_PERIODE);
+                ceilingNanos = turnTimer instanceof CpuTimer && ((CpuTimer) turnTimer).isMeasuringCpuTime()
+                        ? TimeUnit.MILLISECONDS.toNanos(AI_EXECUTION_WALL_CLOCK_CEILING) : budget + graceNanos;
+            }
+            //Allocations of a bot in a separate process can not be observed from here
+            allocatingThread = human || player instanceof RemoteBot ? null : executor.getWorker();
+            if (allocatingThread != null) {
+                allocationStart = ConcurrencyController.threadAllocatedBytes(allocatingThread.getId());
+                if (allocationStart < 0) allocatingThread = null;
+            }
+            //Set before copying, so the copy handed to the player contains the timer of its own turn
+            simulation.setTurnTimer(turnTimer);
+            GameState stateCopy = state.copy();
+
+            //A controller is only valid for a single turn, one kept by a bot stays deactivated afterwards
+            Controller controller = new Controller(Game.this, gcController, human ? HUMAN_CONTROLLER_USES : AI_CONTROLLER_USES);
+            this.gcController = gcController;
+            this.player = player;
+            this.playerIndex = index;
+            this.stateCopy = stateCopy;
+            this.controller = controller;
+            deadline.set(null);
+            producer.set(IDLE);
+            //Publishes the fields above to the bot and the watchdog
+            turn++;
+            openTurn.set(turn);
+        }
+
+        private void scheduleDeadline() {
+            TimerWheel.Timeout timeout = TURN_WATCHDOG.schedule(deadlineTask, getRemainingNanos(), TimeUnit.NANOSECONDS);
+            deadline.set(timeout);
+            if (openTurn.get() != turn) timeout.cancel();
+            //The watchdog may have found no deadline, if it expired before it could be set
+            else if (timeout.isExpired()) expire();
+        }
+
+        private void cancelDeadline() {
+            TimerWheel.Timeout current = deadline.get();
+            if (current != null) current.cancel();
+        }
+
+        /**
+         * @return Nanoseconds until the turn has to end at the earliest, the grace period included
+         */
+        private long getRemainingNanos() {
+            long wallClock = ceilingNanos - (System.nanoTime() - turnStartNanos);
+            return Math.min(wallClock, turnTimer.getRemainingNanos() + graceNanos);
+        }
+
+        /**
+         * @return Bytes allocated on the heap by the bot since its turn has begun, or -1 if they are not measured
+         */
+        private long getAllocatedBytes() {
+            Thread thread = allocatingThread;
+            if (thread == null) return -1;
+            long allocated = ConcurrencyController.threadAllocatedBytes(thread.getId());
+            return allocated < 0 ? -1 : allocated - allocationStart;
+        }
+
+        /**
+         * @return True, if the calling thread is the bot of this turn and has allocated more than the limit
+         */
+        private boolean exceedsAllocationLimit() {
+            return allocationLimit > 0 && allocatingThread == Thread.currentThread() && getAllocatedBytes() > allocationLimit;
+        }
+
+        private void executeBotTurn() {
+            int turn = this.turn;
+            Thread.currentThread().setName(threadNames[playerIndex]);
+            long botCpuStart = ConcurrencyController.currentThreadCpuTime();
+            try {
+                player.executeTurn(stateCopy, controller);
+            } catch (Throwable e) {
+                //Also reached by a bot, that has been stopped after its deadline. In this case the turn has already ended
+                end(turn, () -> {
+                    System.out.println("bot failed with exception: " + e);
+                    e.printStackTrace();
+                    System.err.println("The failed player has been penalized!");
+                    simulation.penalizeCurrentPlayer();
+                    metrics.recordBotPenalty();
+                });
+                return;
+            } finally {
+                addCpuTime(botCpuStart);
+            }
+            end(turn, exceedsAllocationLimit() ? onAllocationLimit : null);
+        }
+
+        private void executeHumanTurn() {
+            int turn = this.turn;
+            Thread.currentThread().setName(threadNames[playerIndex]);
+            long botCpuStart = ConcurrencyController.currentThreadCpuTime();
+            try {
+                player.executeTurn(stateCopy, controller);
+            } catch (Throwable e) {
+                end(turn, () -> {
+                    System.err.println("human player failed with exception: " + e);
+                    e.printStackTrace();
+                    inputGenerator.endTurn();
+                });
+                return;
+            } finally {
+                addCpuTime(botCpuStart);
+            }
+            end(turn, endHumanTurn);
+        }
+
+        private void expire() {
+            //Read in this order, so a deadline of a previous turn, that expired while the player ended its turn,
+            //either fails to end the previous turn again or finds the pending deadline of the current turn
+            int turn = this.turn;
+            TimerWheel.Timeout current = deadline.get();
+            if (current == null || !current.isExpired()) return;
+            long remaining = getRemainingNanos();
+            if (remaining > 0 && openTurn.get() == turn) {
+                //The bot has been descheduled for a part of its turn, check again once it could have used up its budget
+                TimerWheel.Timeout next = TURN_WATCHDOG.schedule(deadlineTask, remaining, TimeUnit.NANOSECONDS);
+                if (!deadline.compareAndSet(current, next) || openTurn.get() != turn) next.cancel();
+                return;
+            }
+            end(turn, player.getType() == Player.PlayerType.Human ? onHumanTimeout : onBotTimeout);
+        }
+
+        /**
+         * @return False, if the turn has timed out and the command must be discarded
+         */
+        private boolean beginProducing() {
+            return producer.compareAndSet(IDLE, PRODUCING);
+        }
+
+        private void endProducing() {
+            if (producer.compareAndSet(PRODUCING, IDLE)) return;
+            //The deadline expired while the command was queued, the player is stopped now that the buffer is consistent
+            Player stopped = pendingStop.getAndSet(null);
+            if (stopped != null) forceStop(stopped);
+        }
+
+        /**
+         * Discards further commands of the player and stops it, unless it is queueing a command. In this case it is
+         * stopped by {@link #endProducing()}, once the command has been published.
+         */
+        private void stopPlayer() {
+            executor.cancel();
+            pendingStop.set(player);
+            if (producer.getAndSet(CANCELLED) != PRODUCING && pendingStop.compareAndSet(player, null)) forceStop(player);
+        }
+
+        private void onBotTimeout() {
+            stopPlayer();
+            metrics.recordBotTimeout();
+
+            System.out.println("player" + playerIndex + "(" + player.getName() + ") computation surpassed timeout");
+            System.err.println("The failed player has been penalized!");
+            simulation.penalizeCurrentPlayer();
+            metrics.recordBotPenalty();
+        }
+
+        private void onAllocationLimit() {
+            System.out.println("player" + playerIndex + "(" + player.getName() + ") allocated " + getAllocatedBytes()
+                    + " bytes, surpassing the limit of " + allocationLimit + " bytes per turn");
+            System.err.println("The failed player has been penalized!");
+            simulation.penalizeCurrentPlayer();
+            metrics.recordBotPenalty();
+        }
+
+        private void onHumanTimeout() {
+            stopPlayer();
+            System.err.println("player" + playerIndex + "(" + player.getName() + ") computation surpassed timeout");
+            inputGenerator.endTurn();
+        }
+
+        /**
+         * @param turn  the turn to end
+         * @param onEnd executed before the turn is ended, if this call ends the turn. May be null
+         * @return False, if the turn has already been ended
+         */
+        private boolean end(int turn, Runnable onEnd) {
+            if (!openTurn.compareAndSet(turn, -1)) return false;
+            cancelDeadline();
+            try {
+                if (onEnd != null) onEnd.run();
+            } finally {
+                //The simulation thread waits for this command, even if onEnd failed
+                queueEndTurn();
+            }
+            return true;
+        }
+
+        /**
+         * Adds the empty command breaking the command execution of the turn. Waits for room even if the calling thread
+         * is interrupted, e.g. a bot cancelled right after it returned, and restores the interrupt afterwards.
+         */
+        private void queueEndTurn() {
+            EndTurnCommand endTurn = new EndTurnCommand(gcController);
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    commandQueue.put(endTurn);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Hands a command of the current player to the simulation thread. If the simulation falls behind, the player is
+     * blocked until there is room again, the time spent waiting counts towards its turn.
+     */
     protected void queueCommand(Command cmd) {
-        commandQueue.add(cmd);
+        //The bot is penalized once it returns, until then its commands are discarded like those beyond its uses
+        if (turnContext.exceedsAllocationLimit()) return;
+        if (!turnContext.beginProducing()) return;
+        try {
+            commandQueue.put(cmd);
+        } catch (InterruptedException e) {
+            //The turn has been cancelled, remaining commands would be discarded anyway
+            Thread.currentThread().interrupt();
+        } finally {
+            turnContext.endProducing();
+        }
     }
 
     protected String[] getPlayerNames() {
@@ -1,6 +1,7 @@
 package com.example.manager;
 
 import com.example.simulation.GameState;
+import com.example.simulation.StalemateRules;
 import com.example.ui.hud.UiMessenger;
 
 import java.io.Serializable;
@@ -21,6 +22,11 @@ class GameConfig implements Serializable {
         mapName = runConfiguration.mapName;
         teamCount = runConfiguration.teamCount;
         replay = runConfiguration.replay;
+        virtualThreads = runConfiguration.virtualThreads;
+        isolatedBots = runConfiguration.isolatedBots;
+        botAllocationLimit = runConfiguration.botAllocationLimit;
+        //Resolved by Run.getRun, runs created otherwise play without stalemate rules
+        if (runConfiguration.stalemateRules != null) stalemateRules = runConfiguration.stalemateRules;
     }
 
     //Todo add default values
@@ -38,6 +44,19 @@ class GameConfig implements Serializable {
 
     public boolean replay = false;
 
+    public boolean virtualThreads = false;
+
+    public boolean isolatedBots = false;
+
+    public long botAllocationLimit = 0;
+
+    public StalemateRules stalemateRules = StalemateRules.NONE;
+
+    /**
+     * Seed of the simulation and the bots of the game
+     */
+    public long seed = Manager.getSeed();
+
     public List<Class<? extends Player>> players;
 
     public GameConfig copy() {
@@ -51,6 +70,11 @@ class GameConfig implements Serializable {
         copy.mapName = mapName;
         copy.teamCount = teamCount;
         copy.replay = replay;
+        copy.virtualThreads = virtualThreads;
+        copy.isolatedBots = isolatedBots;
+        copy.botAllocationLimit = botAllocationLimit;
+        copy.stalemateRules = stalemateRules;
+        copy.seed = seed;
         return copy;
     }
 
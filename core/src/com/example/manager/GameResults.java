@@ -5,6 +5,7 @@ import com.example.simulation.action.ActionLog;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 public class GameResults implements Serializable {
     private final ArrayList<ActionLog> actionLogs = new ArrayList<>();
@@ -18,9 +19,15 @@ public class GameResults implements Serializable {
     private Game.Status status;
     private float[] scores;
 
+    private final long[] allocatedBytes;
+    private final long[][] turnAllocations;
+    private final int[] measuredTurns;
+
     protected GameResults(GameConfig config) {
         this.config = config;
-
+        allocatedBytes = new long[config.teamCount];
+        turnAllocations = new long[config.teamCount][16];
+        measuredTurns = new int[config.teamCount];
     }
 
     protected void setInitialState(GameState initialState) {
@@ -74,4 +81,26 @@ public class GameResults implements Serializable {
     public void setScores(float[] scores) {
         this.scores = scores;
     }
+
+    protected void addTurnAllocation(int team, long bytes) {
+        if (measuredTurns[team] == turnAllocations[team].length)
+            turnAllocations[team] = Arrays.copyOf(turnAllocations[team], measuredTurns[team] * 2);
+        turnAllocations[team][measuredTurns[team]++] = bytes;
+        allocatedBytes[team] += bytes;
+    }
+
+    /**
+     * @return Bytes allocated on the heap by the bot of each team during its turns in this game. Turns of humans, of
+     * bots in a separate process and turns, that have been ended by stopping the bot, are not measured
+     */
+    public long[] getAllocatedBytes() {
+        return allocatedBytes.clone();
+    }
+
+    /**
+     * @return Bytes allocated on the heap by the bot of team in each of its measured turns, in the order of the turns
+     */
+    public long[] getTurnAllocations(int team) {
+        return Arrays.copyOf(turnAllocations[team], measuredTurns[team]);
+    }
 }
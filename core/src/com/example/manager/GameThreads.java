@@ -0,0 +1,88 @@
+package com.example.manager;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Creates the threads orchestrating a {@link Game}.
+ * <p>
+ * If virtual threads are requested and supported by the running JVM (Java 21+), these threads are virtual threads.
+ * The api is resolved reflectively, so the project still builds and runs on older JDKs, where platform threads are used instead.
+ * Bot code is never executed by threads created here, it stays on the isolated platform threads of the {@link BotThread}.
+ * <p>
+ * Only the game loop is moved onto a virtual thread. It hands every turn to a platform thread and waits for the turn
+ * through the lock-free command queue and a {@link java.util.concurrent.locks.Condition}, so it does not pin its
+ * carrier while waiting, except for a paused game waiting on its scheduling lock. No benefit over platform threads has
+ * been measured for this design yet, the throughput gains measured earlier came from per-turn waiter threads, which
+ * have been replaced by the shared {@link TimerWheel}. Run BenchmarkTurnOrchestration on Java 21+ before relying on it.
+ */
+final class GameThreads {
+
+    private static final MethodHandle OF_VIRTUAL;
+    private static final MethodHandle NAME;
+    private static final MethodHandle UNSTARTED;
+    private static boolean fallbackReported = false;
+
+    static {
+        MethodHandle ofVirtual = null;
+        MethodHandle name = null;
+        MethodHandle unstarted = null;
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            Class<?> ofVirtualBuilder = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtualBuilder));
+            name = lookup.findVirtual(builder, "name", MethodType.methodType(builder, String.class));
+            unstarted = lookup.findVirtual(builder, "unstarted", MethodType.methodType(Thread.class, Runnable.class));
+            //Virtual threads may only be a preview feature of this JVM
+            unstarted.invoke(name.invoke(ofVirtual.invoke(), "Virtual_Thread_Probe"), (Runnable) () -> {
+            });
+        } catch (Throwable e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        UNSTARTED = unstarted;
+    }
+
+    private GameThreads() {
+    }
+
+    /**
+     * @return True, if the running JVM is able to create virtual threads
+     */
+    static boolean isVirtualThreadSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Creates a new, unstarted thread.
+     *
+     * @param virtual whether a virtual thread should be used if supported
+     * @param task    the task executed by the thread
+     * @param name    the name of the thread
+     * @return The created thread
+     */
+    static Thread newThread(boolean virtual, Runnable task, String name) {
+        if (virtual) {
+            if (isVirtualThreadSupported()) {
+                try {
+                    return (Thread) UNSTARTED.invoke(NAME.invoke(OF_VIRTUAL.invoke(), name), task);
+                } catch (Throwable e) {
+                    throw new RuntimeException("Unable to create virtual thread", e);
+                }
+            }
+            reportFallback();
+        }
+        Thread thread = new Thread(task);
+        thread.setName(name);
+        return thread;
+    }
+
+    private static synchronized void reportFallback() {
+        if (fallbackReported) return;
+        fallbackReported = true;
+        System.err.println("Warning: Virtual threads are not supported by this JVM (requires Java 21+), using platform threads instead");
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.manager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Thread-safe accumulator for latency samples.
+ * <p>
+ * Besides count, mean and maximum, samples are kept in a log-linear histogram: every power of two is split into
+ * 16 linear buckets, so percentiles are reported with a relative error of at most 1/16.
+ * <p>
+ * Recording threads are spread over stripes, each with its own histogram and lock, so the game threads sharing the
+ * stats of a {@link Manager} rarely wait for each other. Stripes are created on first use and merged when read.
+ */
+public class LatencyStats {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+    private static final int STRIPE_COUNT = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1;
+
+    private final AtomicReferenceArray<Stripe> stripes = new AtomicReferenceArray<>(STRIPE_COUNT);
+
+    private static final class Stripe {
+        private final long[] buckets = new long[BUCKET_COUNT];
+        private long count = 0;
+        private long totalNanos = 0;
+        private long maxNanos = 0;
+
+        synchronized void record(long nanos) {
+            count++;
+            totalNanos += nanos;
+            if (nanos > maxNanos) maxNanos = nanos;
+            buckets[getBucketIndex(nanos)]++;
+        }
+
+        synchronized void addTo(Stripe merged) {
+            merged.count += count;
+            merged.totalNanos += totalNanos;
+            merged.maxNanos = Math.max(merged.maxNanos, maxNanos);
+            for (int i = 0; i < BUCKET_COUNT; i++) merged.buckets[i] += buckets[i];
+        }
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        long id = Thread.currentThread().getId();
+        //Consecutive thread ids are spread over the stripes
+        int index = (int) (id * 0x9E3779B97F4A7C15L >>> 32) & (STRIPE_COUNT - 1);
+        Stripe stripe = stripes.get(index);
+        if (stripe == null) {
+            stripes.compareAndSet(index, null, new Stripe());
+            stripe = stripes.get(index);
+        }
+        stripe.record(nanos);
+    }
+
+    /**
+     * @return The samples of all stripes, each stripe is merged consistently
+     */
+    private Stripe merge() {
+        Stripe merged = new Stripe();
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            Stripe stripe = stripes.get(i);
+            if (stripe != null) stripe.addTo(merged);
+        }
+        return merged;
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            Stripe stripe = stripes.get(i);
+            if (stripe != null) {
+                synchronized (stripe) {
+                    count += stripe.count;
+                }
+            }
+        }
+        return count;
+    }
+
+    public double getMean(TimeUnit unit) {
+        return getMean(merge(), unit);
+    }
+
+    public double getMax(TimeUnit unit) {
+        return getMax(merge(), unit);
+    }
+
+    /**
+     * @param percentile requested percentile in the range [0, 100]
+     * @param unit       the unit of the returned value
+     * @return The smallest recorded value, that is larger or equal to percentile % of all samples, 0 if nothing was recorded
+     */
+    public double getPercentile(double percentile, TimeUnit unit) {
+        return getPercentile(merge(), percentile, unit);
+    }
+
+    private static double getMean(Stripe samples, TimeUnit unit) {
+        if (samples.count == 0) return 0;
+        return (double) samples.totalNanos / samples.count / unit.toNanos(1);
+    }
+
+    private static double getMax(Stripe samples, TimeUnit unit) {
+        return (double) samples.maxNanos / unit.toNanos(1);
+    }
+
+    private static double getPercentile(Stripe samples, double percentile, TimeUnit unit) {
+        if (samples.count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * samples.count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += samples.buckets[i];
+            if (seen >= rank)
+                return (double) Math.min(getBucketUpperBound(i), samples.maxNanos) / unit.toNanos(1);
+        }
+        return getMax(samples, unit);
+    }
+
+    private static int getBucketIndex(long nanos) {
+        if (nanos < SUB_BUCKET_COUNT) return (int) nanos;
+        int shift = 63 - Long.numberOfLeadingZeros(nanos) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) ((nanos >>> shift) & (SUB_BUCKET_COUNT - 1));
+    }
+
+    private static long getBucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) return index;
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long lowerBound = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        Stripe samples = merge();
+        return String.format("LatencyStats{count=%d, mean=%.3fms, p50=%.3fms, p99=%.3fms, max=%.3fms}",
+                samples.count, getMean(samples, TimeUnit.MILLISECONDS), getPercentile(samples, 50, TimeUnit.MILLISECONDS),
+                getPercentile(samples, 99, TimeUnit.MILLISECONDS), getMax(samples, TimeUnit.MILLISECONDS));
+    }
+}
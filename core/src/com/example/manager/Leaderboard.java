@@ -0,0 +1,95 @@
+package com.example.manager;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the standings of a {@link Run}, see {@link Run#getLeaderboard()}.
+ * <p>
+ * The scores of an incomplete run are normalized by the games completed so far, so they converge to the final scores
+ * of the run and stay comparable while it progresses.
+ */
+public final class Leaderboard {
+
+    private final List<Class<? extends Player>> players;
+    private final float[] scores;
+    private final long completedGames;
+    private final long gameCount;
+    private final boolean isFinal;
+
+    /**
+     * @param players        players of the run, must not be modified afterwards
+     * @param scores         score of every player, owned by the leaderboard
+     * @param completedGames games, whose scores are included
+     * @param gameCount      games of the complete run, at most, if the run may end early
+     * @param isFinal        whether the run has completed
+     */
+    Leaderboard(List<Class<? extends Player>> players, float[] scores, long completedGames, long gameCount, boolean isFinal) {
+        this.players = players;
+        this.scores = scores;
+        this.completedGames = completedGames;
+        this.gameCount = gameCount;
+        this.isFinal = isFinal;
+    }
+
+    public List<Class<? extends Player>> getPlayers() {
+        return players;
+    }
+
+    /**
+     * @return Score of the player at the given index of {@link #getPlayers()}
+     */
+    public float getScore(int player) {
+        return scores[player];
+    }
+
+    public long getCompletedGames() {
+        return completedGames;
+    }
+
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    /**
+     * @return True, if the scores are the final scores of the run
+     */
+    public boolean isFinal() {
+        return isFinal;
+    }
+
+    /**
+     * @return Player indices from the highest to the lowest score
+     */
+    public Integer[] getRanking() {
+        Integer[] ranking = new Integer[scores.length];
+        for (int i = 0; i < ranking.length; i++) ranking[i] = i;
+        Arrays.sort(ranking, Comparator.comparingDouble((Integer player) -> -scores[player]));
+        return ranking;
+    }
+
+    /**
+     * @param limit number of players to include at most
+     * @return The standings of the best players, one line per player
+     */
+    public String format(int limit) {
+        StringBuilder builder = new StringBuilder(String.format("Standings after %d of %d games:%n", completedGames, gameCount));
+        Integer[] ranking = getRanking();
+        for (int place = 0; place < ranking.length && place < limit; place++) {
+            int player = ranking[place];
+            builder.append(String.format("%3d. %-30s %10.3f%n", place + 1, players.get(player).getName(), scores[player]));
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "Leaderboard{" +
+                "completedGames=" + completedGames +
+                ", gameCount=" + gameCount +
+                ", isFinal=" + isFinal +
+                ", scores=" + Arrays.toString(scores) +
+                '}';
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.manager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Delivers {@link Leaderboard} snapshots of a run to its subscribers, without blocking the threads completing games.
+ * <p>
+ * {@link #publish()} only marks the standings as changed and hands the delivery to a shared daemon thread. Changes
+ * arriving while a delivery is in progress are coalesced into the next one, a slow subscriber therefore receives fewer
+ * snapshots, but always the latest standings.
+ */
+final class LeaderboardFeed {
+
+    private static final ExecutorService DELIVERY = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "LeaderboardFeed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Supplier<Leaderboard> source;
+    private final List<Consumer<Leaderboard>> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean changed = new AtomicBoolean(false);
+    private final AtomicBoolean delivering = new AtomicBoolean(false);
+
+    /**
+     * @param source creates a snapshot of the current standings, called on the delivery thread
+     */
+    LeaderboardFeed(Supplier<Leaderboard> source) {
+        this.source = source;
+    }
+
+    void subscribe(Consumer<Leaderboard> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    void unsubscribe(Consumer<Leaderboard> subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    /**
+     * Notifies the subscribers of changed standings. Returns immediately.
+     */
+    void publish() {
+        if (subscribers.isEmpty()) return;
+        changed.set(true);
+        if (delivering.compareAndSet(false, true)) DELIVERY.execute(this::deliver);
+    }
+
+    private void deliver() {
+        do {
+            while (changed.getAndSet(false)) {
+                Leaderboard leaderboard = source.get();
+                for (Consumer<Leaderboard> subscriber : subscribers) {
+                    try {
+                        subscriber.accept(leaderboard);
+                    } catch (RuntimeException e) {
+                        System.err.println("Leaderboard subscriber failed with exception: " + e);
+                    }
+                }
+            }
+            delivering.set(false);
+            //A change published after the last check, but before delivering was reset, would be lost otherwise
+        } while (changed.get() && delivering.compareAndSet(false, true));
+    }
+}
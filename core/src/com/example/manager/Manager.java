@@ -1,6 +1,9 @@
 package com.example.manager;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
 import java.io.*;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.InvocationTargetException;
 import java.nio.file.Files;
 import java.util.*;
@@ -12,6 +15,7 @@ import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 public class Manager {
 
@@ -19,10 +23,11 @@ public class Manager {
             new RuntimePermission("accessManagerInstance");
     private static final String RESULT_DIR_NAME = "results";
     private static final File RESULT_DIR = new File(RESULT_DIR_NAME);
+    private static final long RESOURCE_CHECK_INTERVAL = 5000;
+    private static final String MBEAN_NAME = "com.example.manager:type=Manager";
     private static int systemReservedProcessorCount = 2;
     private static final Manager singleton = new Manager();
     private boolean pendingShutdown = false;
-    private int writtenFiles = 0;
 
     private final Thread executionManager;
 
@@ -35,16 +40,38 @@ public class Manager {
 
     private final ArrayList<Executable> pausedGames = new ArrayList<>();
 
-    private final ArrayList<Executable> completedGames = new ArrayList<>();
+    //Completed games are only counted, a run may complete millions of them
+    private int completedGames = 0;
 
-    private final BlockingQueue<GameResults> pendingSaves = new LinkedBlockingQueue<>();
+    private static final int DEFAULT_REPLAY_QUEUE_CAPACITY = 64;
+    private static final int DEFAULT_REPLAY_WRITER_COUNT = 1;
+    private static final int DEFAULT_REPLAY_BATCH_SIZE = 8;
+
+    private BotProcessPool botProcessPool = null;
+    private BotThreadPool botThreadPool = null;
+    private ResultCache resultCache = null;
+
+    private ReplayWriter replayWriter = new ReplayWriter(RESULT_DIR, DEFAULT_REPLAY_QUEUE_CAPACITY, DEFAULT_REPLAY_WRITER_COUNT, DEFAULT_REPLAY_BATCH_SIZE);
+
+    private final BlockingQueue<SchedulingEvent> schedulingEvents = new LinkedBlockingQueue<>();
+
+    private final LatencyStats schedulingLatency = new LatencyStats();
+
+    private final ManagerMetrics metrics = new ManagerMetrics(this);
 
     private final Object schedulingLock = new Object();
 
-    private static long seed = 345342624;
+    static final long DEFAULT_SEED = 345342624;
+    private static long seed = DEFAULT_SEED;
 
     private static int availableCores = 0;
 
+    private SchedulingPolicy schedulingPolicy = new FifoSchedulingPolicy();
+
+    private volatile ConcurrencyController concurrencyController = null;
+
+    private int gameLimit = 0;
+
 
     @SuppressWarnings("removal")
     public static Manager getManager() {
@@ -56,73 +83,95 @@ public class Manager {
     }
 
     public Run startRun(RunConfiguration runConfiguration) {
+        if (runConfiguration.isolatedBots) getBotProcessPool().prewarm();
         return Run.getRun(this, runConfiguration);
     }
 
     private void executionManager() {
         Thread.currentThread().setName("Execution_Manager");
-        while (!Thread.interrupted()) {
+        List<SchedulingEvent> events = new ArrayList<>();
+        while (true) {
             try {
-                synchronized (executionManager) {
-                    executionManager.wait(5000);
-                }
+                ConcurrencyController controller = concurrencyController;
+                long interval = controller == null ? RESOURCE_CHECK_INTERVAL : Math.min(RESOURCE_CHECK_INTERVAL, controller.getSampleInterval());
+                SchedulingEvent event = schedulingEvents.poll(interval, TimeUnit.MILLISECONDS);
+                //On timeout, rebalance anyway: the processor count of the host and the load of the games may change
+                //without any event being posted. Only posted events have a latency worth recording
+                if (event != null) events.add(event);
             } catch (InterruptedException e) {
                 System.out.println("ExecutionManager shutting down");
                 break;
             }
-            int threadLimit = Math.max(Runtime.getRuntime().availableProcessors() - systemReservedProcessorCount, Executable.REQUIRED_THREAD_COUNT);
-            if (threadLimit != availableCores) {
-                availableCores = threadLimit;
-                System.out.printf("Resource load changed to %d cores, adapting...\n", threadLimit);
+            //Handle everything that accumulated in the meantime within the same rebalancing step
+            schedulingEvents.drainTo(events);
+            boolean shutdown = false;
+            for (SchedulingEvent event : events) {
+                schedulingLatency.record(event.getLatencyNanos());
+                if (event.getType() == SchedulingEvent.Type.SHUTDOWN) shutdown = true;
             }
-            synchronized (schedulingLock) {
-                int runningThreads = activeGames.size() * Executable.REQUIRED_THREAD_COUNT;
-                if (runningThreads > threadLimit) {
-                    while (runningThreads > threadLimit) {
-                        if (activeGames.size() == 0) {
-                            System.err.println("Warning: System-reserved Processor Count exceeds physical limit. Simulation offline!");
-                            break;
-                        }
-                        Executable game = activeGames.remove(activeGames.size() - 1);
-                        game.pause();
-                        pausedGames.add(game);
-                        runningThreads -= 2;
-                    }
-                } else
-                    while (runningThreads + 2 <= threadLimit) {
-                        if (pausedGames.size() > 0) {
-                            Executable game = pausedGames.remove(pausedGames.size() - 1);
-                            game.resume();
+            events.clear();
+            if (shutdown) {
+                System.out.println("ExecutionManager shutting down");
+                break;
+            }
+            rebalance();
+        }
+    }
+
+    private void rebalance() {
+        double processors = ConcurrencyController.getAvailableProcessors();
+        int threadLimit = Math.max((int) processors - systemReservedProcessorCount, Executable.REQUIRED_THREAD_COUNT);
+        if (threadLimit != availableCores) {
+            availableCores = threadLimit;
+            System.out.printf("Resource load changed to %d cores, adapting...\n", threadLimit);
+        }
+        ConcurrencyController controller = concurrencyController;
+        synchronized (schedulingLock) {
+            int limit;
+            if (controller != null) {
+                double cpuBudget = Math.max(processors - systemReservedProcessorCount, 1);
+                limit = controller.update(activeGames, !pausedGames.isEmpty() || !scheduledGames.isEmpty(), cpuBudget);
+            } else {
+                limit = threadLimit / Executable.REQUIRED_THREAD_COUNT;
+            }
+            gameLimit = limit;
+            if (activeGames.size() > limit) {
+                while (activeGames.size() > limit) {
+                    Executable game = activeGames.remove(activeGames.size() - 1);
+                    game.pause();
+                    pausedGames.add(game);
+                }
+            } else
+                while (activeGames.size() < limit) {
+                    if (pausedGames.size() > 0) {
+                        Executable game = schedulingPolicy.select(pausedGames);
+                        pausedGames.remove(game);
+                        game.resume();
+                        activeGames.add(game);
+                    } else if (scheduledGames.size() > 0) {
+                        Executable game = schedulingPolicy.select(scheduledGames);
+                        scheduledGames.remove(game);
+                        try {
+                            schedulingPolicy.onGameStarted(game);
+                            game.start();
                             activeGames.add(game);
-                        } else if (scheduledGames.size() > 0) {
-                            Executable game = scheduledGames.remove(scheduledGames.size() - 1);
-                            try {
-                                game.start();
-                                activeGames.add(game);
-                            } catch (Exception e) {
-                                e.printStackTrace();
-                                System.err.println("Game crashed on start(); Aborting...\n" + game);
-                                game.abort();
-                            }
-                        } else {
-                            break;
+                            metrics.onGameStarted();
+                        } catch (Exception e) {
+                            e.printStackTrace();
+                            System.err.println("Game crashed on start(); Aborting...\n" + game);
+                            game.abort();
                         }
-                        runningThreads += 2;
-                    }
-            }
-            while (!pendingSaves.isEmpty()) {
-                GameResults results = pendingSaves.poll();
-                if (RESULT_DIR.exists() || RESULT_DIR.mkdirs()) {
-                    try (FileOutputStream fs = new FileOutputStream(String.format("%s/%s_%d_%d.replay", RESULT_DIR, results.getConfig().gameMode, System.currentTimeMillis(), writtenFiles++))) {
-                        new ObjectOutputStream(fs).writeObject(results);
-                    } catch (IOException e) {
-                        System.err.printf("Unable to save replay at %s/%s_%d_%d.replay %n", RESULT_DIR, results.getConfig().gameMode, System.currentTimeMillis(), writtenFiles);
+                    } else {
+                        break;
                     }
-                } else System.err.printf("Unable to create results directory at %s %n", RESULT_DIR);
-            }
+                }
         }
     }
 
+    private void postEvent(SchedulingEvent event) {
+        schedulingEvents.add(event);
+    }
+
     protected void schedule(Executable game) {
         synchronized (schedulingLock) {
             if (pendingShutdown) return;
@@ -132,23 +181,24 @@ public class Manager {
             game.schedule();
             scheduledGames.add(game);
         }
-        synchronized (executionManager) {
-            executionManager.notify();
-        }
+        postEvent(new SchedulingEvent(SchedulingEvent.Type.GAME_SCHEDULED, game));
     }
 
 
     private void notifyExecutionManager(Executable game) {
+        GameResults results = null;
         synchronized (schedulingLock) {
             if (!activeGames.remove(game) && !pausedGames.remove(game))
                 System.err.printf("Warning unsuccessfully attempted to complete Game %s\nInstance: %s", game, this);
-            if (game.shouldSaveReplay()) pendingSaves.add(game.getGameResults());
-            completedGames.add(game);
+            if (game.shouldSaveReplay()) results = game.getGameResults();
+            games.remove(game);
+            completedGames++;
+            schedulingPolicy.onGameCompleted(game);
             game.dispose();
         }
-        synchronized (executionManager) {
-            executionManager.notify();
-        }
+        postEvent(new SchedulingEvent(SchedulingEvent.Type.GAME_COMPLETED, game));
+        //Writing the replay may block on a full queue, which must neither stall the scheduler nor hold its lock
+        if (results != null) getReplayWriter().submit(results);
     }
 
     public void stop(Run run) {
@@ -156,6 +206,7 @@ public class Manager {
     }
 
     protected void stop(Executable game) {
+        GameResults results = null;
         synchronized (schedulingLock) {
             synchronized (game.schedulingLock) {
                 switch (game.getStatus()) {
@@ -171,11 +222,16 @@ public class Manager {
                     case COMPLETED:
                         return;
                 }
-                if (game.shouldSaveReplay()) pendingSaves.add(game.getGameResults());
-                completedGames.add(game);
+                if (game.shouldSaveReplay()) results = game.getGameResults();
+                games.remove(game);
+                completedGames++;
+                schedulingPolicy.onGameCompleted(game);
                 game.abort();
             }
         }
+        if (results != null) getReplayWriter().submit(results);
+        //The slot of the aborted game may be used by the next one
+        postEvent(new SchedulingEvent(SchedulingEvent.Type.GAME_COMPLETED, game));
     }
 
     public static class NamedPlayerClass {
@@ -222,7 +278,7 @@ public class Manager {
         players.add(new NamedPlayerClass(HumanPlayer.class, "HumanPlayer"));
         players.add(new NamedPlayerClass(IdleBot.class, "IdleBot"));
         File botDir = new File("bots");
-        seed = 345342624;
+        seed = DEFAULT_SEED;
         System.out.println(new File("").getAbsolutePath());
         if (botDir.exists()) {
             System.out.println("Attempting to load Bots from " + botDir.getAbsolutePath());
@@ -264,7 +320,8 @@ public class Manager {
         try (BufferedReader br = new BufferedReader(new InputStreamReader(Files.newInputStream(botFile.toPath())))) {
             String line;
             while ((line = br.readLine()) != null) {
-                seed = seed + br.hashCode();
+                //Depends on the content only, so the same bots result in the same seed in every run
+                seed = seed * 31 + line.hashCode();
                 resultStringBuilder.append(line).append("\n");
             }
         } catch (IOException e) {
@@ -313,16 +370,35 @@ public class Manager {
 
         executionManager = new Thread(this::executionManager);
         executionManager.start();
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(MBEAN_NAME));
+        } catch (JMException e) {
+            System.err.println("Unable to register the Manager's MBean: " + e);
+        }
     }
 
     public void dispose() {
         //Shutdown all running threads
         pendingShutdown = true;
-        executionManager.interrupt();
-        synchronized (games) {
-            for (Executable cur :
-                    games) {
-                cur.dispose();
+        postEvent(new SchedulingEvent(SchedulingEvent.Type.SHUTDOWN));
+        Executable[] running;
+        synchronized (schedulingLock) {
+            running = games.toArray(new Executable[0]);
+        }
+        //Games stop their threads independently of each other
+        Arrays.stream(running).parallel().forEach(Executable::dispose);
+        //Wait for pending replays to be written
+        getReplayWriter().close();
+        synchronized (this) {
+            if (botProcessPool != null) botProcessPool.close();
+            if (botThreadPool != null) botThreadPool.close();
+            if (resultCache != null) {
+                try {
+                    resultCache.close();
+                } catch (IOException e) {
+                    System.err.println("Unable to close result cache: " + e);
+                }
             }
         }
     }
@@ -337,9 +413,147 @@ public class Manager {
 
     public static void setSystemReservedProcessorCount(int systemReservedProcessorCount) {
         Manager.systemReservedProcessorCount = systemReservedProcessorCount;
-        synchronized (getManager().executionManager) {
-            getManager().executionManager.notify();
+        getManager().postEvent(new SchedulingEvent(SchedulingEvent.Type.CORE_BUDGET_CHANGED));
+    }
+
+    public ManagerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return The current values of all metrics collected by this manager
+     */
+    public MetricsSnapshot getMetricsSnapshot() {
+        return metrics.snapshot();
+    }
+
+    /**
+     * @return Number of scheduled, active, paused and completed games
+     */
+    int[] getGameCounts() {
+        synchronized (schedulingLock) {
+            return new int[]{scheduledGames.size(), activeGames.size(), pausedGames.size(), completedGames};
+        }
+    }
+
+    /**
+     * @return Number of games, that may be active at the same time
+     */
+    int getGameLimit() {
+        synchronized (schedulingLock) {
+            return gameLimit;
+        }
+    }
+
+    /**
+     * @return The stage persisting replays, exposing the back-pressure of its queue
+     */
+    public synchronized ReplayWriter getReplayWriter() {
+        return replayWriter;
+    }
+
+    /**
+     * Replaces the stage persisting replays. Replays already queued are written by the previous stage before this method returns.
+     *
+     * @param writerCount   number of writer threads
+     * @param queueCapacity maximum number of replays waiting to be written before completing games are blocked
+     * @param batchSize     maximum number of replays a writer persists per wake-up
+     */
+    public void configureReplayWriter(int writerCount, int queueCapacity, int batchSize) {
+        ReplayWriter previous;
+        synchronized (this) {
+            previous = replayWriter;
+            replayWriter = new ReplayWriter(RESULT_DIR, queueCapacity, writerCount, batchSize);
+        }
+        previous.close();
+    }
+
+    /**
+     * @return The cache of game results shared by all runs, opened on first use. Null, if it can not be opened
+     */
+    synchronized ResultCache getResultCache() {
+        if (resultCache == null) {
+            try {
+                resultCache = ResultCache.open(ResultCache.CACHE_DIR);
+            } catch (IOException e) {
+                System.err.println("Unable to open result cache, all games will be played: " + e);
+            }
         }
+        return resultCache;
+    }
+
+    /**
+     * @return The pool of threads executing the bots of the games, created on first use
+     */
+    synchronized BotThreadPool getBotThreadPool() {
+        if (botThreadPool == null)
+            botThreadPool = new BotThreadPool(Math.max(Executable.REQUIRED_THREAD_COUNT, Runtime.getRuntime().availableProcessors() * 4));
+        return botThreadPool;
+    }
+
+    /**
+     * @return The pool of processes hosting bots of games with isolated bots, created on first use
+     */
+    public synchronized BotProcessPool getBotProcessPool() {
+        if (botProcessPool == null) botProcessPool = new BotProcessPool(BotProcessPool.DEFAULT_WARM_PROCESSES);
+        return botProcessPool;
+    }
+
+    /**
+     * Replaces the pool of processes hosting isolated bots. Idle processes of the previous pool are terminated.
+     *
+     * @param warmProcesses number of started processes kept idle, should be about the number of bots starting concurrently
+     */
+    public void configureBotProcessPool(int warmProcesses) {
+        BotProcessPool previous;
+        synchronized (this) {
+            previous = botProcessPool;
+            botProcessPool = new BotProcessPool(warmProcesses);
+        }
+        if (previous != null) previous.close();
+    }
+
+    public SchedulingPolicy getSchedulingPolicy() {
+        synchronized (schedulingLock) {
+            return schedulingPolicy;
+        }
+    }
+
+    /**
+     * Replaces the policy, that decides in which order scheduled and paused games are run.
+     * Takes effect with the next game being started or resumed.
+     *
+     * @param schedulingPolicy the new policy
+     */
+    public void setSchedulingPolicy(SchedulingPolicy schedulingPolicy) {
+        synchronized (schedulingLock) {
+            this.schedulingPolicy = Objects.requireNonNull(schedulingPolicy);
+        }
+    }
+
+    /**
+     * @return The controller adapting the number of active games to their CPU usage, or null if the limit is derived from the processor count
+     */
+    public ConcurrencyController getConcurrencyController() {
+        return concurrencyController;
+    }
+
+    /**
+     * Lets the given controller decide how many games are active at the same time, based on the CPU time they consume.
+     * Without a controller, two processors are reserved per active game.
+     *
+     * @param concurrencyController the controller, or null to fall back to the processor count
+     */
+    public void setConcurrencyController(ConcurrencyController concurrencyController) {
+        this.concurrencyController = concurrencyController;
+        postEvent(new SchedulingEvent(SchedulingEvent.Type.CORE_BUDGET_CHANGED));
+    }
+
+    /**
+     * @return Time scheduling events had to wait, before they were handled by the Execution_Manager
+     */
+    public LatencyStats getSchedulingLatency() {
+        return schedulingLatency;
     }
 
     @Override
@@ -349,11 +563,15 @@ public class Manager {
                     "pendingShutdown=" + pendingShutdown +
                     ", executionManager=" + executionManager +
                     ", threadPoolExecutor=" + threadPoolExecutor +
+                    ", schedulingPolicy=" + schedulingPolicy +
+                    ", concurrencyController=" + concurrencyController +
+                    ", gameLimit=" + gameLimit +
                     ", games=" + games +
                     ", scheduledGames=" + scheduledGames +
                     ", activeGames=" + activeGames +
                     ", pausedGames=" + pausedGames +
                     ", completedGames=" + completedGames +
+                    ", replayWriter=" + replayWriter +
                     '}';
         }
     }
@@ -0,0 +1,50 @@
+package com.example.manager;
+
+/**
+ * Management interface of the {@link Manager}, registered as com.example.manager:type=Manager at the platform MBeanServer.
+ * Times are reported in milliseconds.
+ */
+public interface ManagerMXBean {
+
+    int getScheduledGames();
+
+    int getActiveGames();
+
+    int getPausedGames();
+
+    int getCompletedGames();
+
+    double getGamesPerSecond();
+
+    long getTurnCount();
+
+    double getTurnLatencyP50();
+
+    double getTurnLatencyP90();
+
+    double getTurnLatencyP99();
+
+    double getTurnLatencyMax();
+
+    long getBotTimeouts();
+
+    long getBotPenalties();
+
+    int getReplayQueueDepth();
+
+    int getReplayQueueCapacity();
+
+    long getReplayBlockedSubmissions();
+
+    double getSchedulingLatencyMean();
+
+    double getSchedulingLatencyMax();
+
+    int getGameLimit();
+
+    double getCpuUtilisation();
+
+    int getSystemReservedProcessorCount();
+
+    void setSystemReservedProcessorCount(int count);
+}
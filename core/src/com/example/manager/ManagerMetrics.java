@@ -0,0 +1,174 @@
+package com.example.manager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects the counters of a {@link Manager} and the {@link Game Games} it runs.
+ * Values are either pulled as a {@link MetricsSnapshot} or read through JMX via {@link ManagerMXBean}.
+ */
+public class ManagerMetrics implements ManagerMXBean {
+
+    private final Manager manager;
+    private final LatencyStats turnLatency = new LatencyStats();
+    private final AtomicLong botTimeouts = new AtomicLong(0);
+    private final AtomicLong botPenalties = new AtomicLong(0);
+    private final AtomicLong firstStartNanos = new AtomicLong(0);
+
+    ManagerMetrics(Manager manager) {
+        this.manager = manager;
+    }
+
+    void onGameStarted() {
+        firstStartNanos.compareAndSet(0, System.nanoTime());
+    }
+
+    void recordTurn(long nanos) {
+        turnLatency.record(nanos);
+    }
+
+    void recordBotTimeout() {
+        botTimeouts.incrementAndGet();
+    }
+
+    void recordBotPenalty() {
+        botPenalties.incrementAndGet();
+    }
+
+    public LatencyStats getTurnLatency() {
+        return turnLatency;
+    }
+
+    /**
+     * @return The current values of all metrics
+     */
+    public MetricsSnapshot snapshot() {
+        int[] counts = manager.getGameCounts();
+        long start = firstStartNanos.get();
+        double elapsed = start == 0 ? 0 : (System.nanoTime() - start) / 1e9;
+        ReplayWriter replayWriter = manager.getReplayWriter();
+        LatencyStats schedulingLatency = manager.getSchedulingLatency();
+        return new MetricsSnapshot(counts[0], counts[1], counts[2], counts[3],
+                elapsed > 0 ? counts[3] / elapsed : 0,
+                turnLatency.getCount(),
+                turnLatency.getPercentile(50, TimeUnit.MILLISECONDS),
+                turnLatency.getPercentile(90, TimeUnit.MILLISECONDS),
+                turnLatency.getPercentile(99, TimeUnit.MILLISECONDS),
+                turnLatency.getMax(TimeUnit.MILLISECONDS),
+                botTimeouts.get(), botPenalties.get(),
+                replayWriter.getQueueDepth(), replayWriter.getQueueCapacity(), replayWriter.getBlockedSubmissions(),
+                schedulingLatency.getMean(TimeUnit.MILLISECONDS), schedulingLatency.getMax(TimeUnit.MILLISECONDS),
+                Manager.getSystemReservedProcessorCount(), manager.getGameLimit(), getCpuUtilisation());
+    }
+
+    @Override
+    public int getScheduledGames() {
+        return manager.getGameCounts()[0];
+    }
+
+    @Override
+    public int getActiveGames() {
+        return manager.getGameCounts()[1];
+    }
+
+    @Override
+    public int getPausedGames() {
+        return manager.getGameCounts()[2];
+    }
+
+    @Override
+    public int getCompletedGames() {
+        return manager.getGameCounts()[3];
+    }
+
+    @Override
+    public double getGamesPerSecond() {
+        return snapshot().getGamesPerSecond();
+    }
+
+    @Override
+    public long getTurnCount() {
+        return turnLatency.getCount();
+    }
+
+    @Override
+    public double getTurnLatencyP50() {
+        return turnLatency.getPercentile(50, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public double getTurnLatencyP90() {
+        return turnLatency.getPercentile(90, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public double getTurnLatencyP99() {
+        return turnLatency.getPercentile(99, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public double getTurnLatencyMax() {
+        return turnLatency.getMax(TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public long getBotTimeouts() {
+        return botTimeouts.get();
+    }
+
+    @Override
+    public long getBotPenalties() {
+        return botPenalties.get();
+    }
+
+    @Override
+    public int getReplayQueueDepth() {
+        return manager.getReplayWriter().getQueueDepth();
+    }
+
+    @Override
+    public int getReplayQueueCapacity() {
+        return manager.getReplayWriter().getQueueCapacity();
+    }
+
+    @Override
+    public long getReplayBlockedSubmissions() {
+        return manager.getReplayWriter().getBlockedSubmissions();
+    }
+
+    @Override
+    public double getSchedulingLatencyMean() {
+        return manager.getSchedulingLatency().getMean(TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public double getSchedulingLatencyMax() {
+        return manager.getSchedulingLatency().getMax(TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int getGameLimit() {
+        return manager.getGameLimit();
+    }
+
+    @Override
+    public double getCpuUtilisation() {
+        ConcurrencyController controller = manager.getConcurrencyController();
+        return controller == null ? -1 : controller.getUtilisation();
+    }
+
+    @Override
+    public int getSystemReservedProcessorCount() {
+        return Manager.getSystemReservedProcessorCount();
+    }
+
+    @Override
+    public void setSystemReservedProcessorCount(int count) {
+        Manager.setSystemReservedProcessorCount(count);
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.manager;
+
+import com.example.simulation.SeatSymmetry;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Enumerates all matchups of a multi-game run without materializing them: every subset of teamCount players in every
+ * seating order.
+ * <p>
+ * A matchup is computed from its index on demand. The index is split into the rank of the subset, unranked with the
+ * combinatorial number system, and the rank of the seating order, unranked as a Lehmer code. Memory does not depend on
+ * the number of matchups, which grows with playerCount^teamCount.
+ * <p>
+ * With a {@link SeatSymmetry} of the map, only the canonical matchup of every equivalence class is enumerated. Each of
+ * them stands for {@link #getClassSize()} matchups.
+ */
+final class MatchUps implements Iterator<List<Integer>> {
+
+    private final int playerCount;
+    private final int teamCount;
+    private final long orders;
+    private final long size;
+    private final SeatSymmetry symmetry;
+    private long next = 0;
+    private List<Integer> pending = null;
+
+    /**
+     * @param playerCount number of players of the run
+     * @param teamCount   number of players of every game
+     */
+    MatchUps(int playerCount, int teamCount) {
+        this(playerCount, teamCount, SeatSymmetry.NONE);
+    }
+
+    /**
+     * @param playerCount number of players of the run
+     * @param teamCount   number of players of every game
+     * @param symmetry    seat permutations, under which the map of the run plays the same
+     */
+    MatchUps(int playerCount, int teamCount, SeatSymmetry symmetry) {
+        if (playerCount < 0 || teamCount < 0)
+            throw new IllegalArgumentException("Player and team count must not be negative");
+        this.playerCount = playerCount;
+        this.teamCount = teamCount;
+        this.orders = factorial(teamCount);
+        this.symmetry = symmetry;
+        this.size = teamCount == 0 || teamCount > playerCount ? 0 : Math.multiplyExact(binomial(playerCount, teamCount), orders);
+    }
+
+    /**
+     * @return Number of matchups, that are enumerated
+     */
+    long size() {
+        return size / symmetry.getOrder();
+    }
+
+    /**
+     * @return Number of matchups in the equivalence class of every enumerated matchup, the weight of its result
+     */
+    int getClassSize() {
+        return symmetry.getOrder();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (pending == null && next < size) {
+            List<Integer> matchUp = get(next++);
+            if (symmetry.isCanonical(matchUp)) pending = matchUp;
+        }
+        return pending != null;
+    }
+
+    @Override
+    public List<Integer> next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        List<Integer> matchUp = pending;
+        pending = null;
+        return matchUp;
+    }
+
+    /**
+     * @return The canonical matchup of the equivalence class of the given one
+     */
+    List<Integer> canonical(List<Integer> matchUp) {
+        return symmetry.canonical(matchUp);
+    }
+
+    /**
+     * Unranks a matchup regardless of the symmetry.
+     *
+     * @param index index of the matchup, in the range [0, playerCount! / (playerCount - teamCount)!)
+     * @return The player indices of the matchup in seating order
+     */
+    List<Integer> get(long index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Matchup " + index + " of " + size);
+        long subsetRank = index / orders;
+        long orderRank = index % orders;
+
+        //Largest elements first: the subset rank is the sum of binomial(element, position) over its elements
+        int[] subset = new int[teamCount];
+        int candidate = playerCount - 1;
+        for (int position = teamCount; position > 0; position--) {
+            while (binomial(candidate, position) > subsetRank) candidate--;
+            subset[position - 1] = candidate;
+            subsetRank -= binomial(candidate, position);
+            candidate--;
+        }
+
+        //The digits of the order rank in the factorial number system select the next player among the remaining ones
+        List<Integer> remaining = new ArrayList<>(teamCount);
+        for (int player : subset) remaining.add(player);
+        List<Integer> matchUp = new ArrayList<>(teamCount);
+        long divisor = orders;
+        for (int position = teamCount; position > 0; position--) {
+            divisor /= position;
+            matchUp.add(remaining.remove((int) (orderRank / divisor)));
+            orderRank %= divisor;
+        }
+        return matchUp;
+    }
+
+    static long binomial(int n, int k) {
+        if (k < 0 || k > n) return 0;
+        k = Math.min(k, n - k);
+        long result = 1;
+        for (int i = 1; i <= k; i++) {
+            //Exact, the product of i consecutive numbers is divisible by i!
+            result = Math.multiplyExact(result, n - k + i) / i;
+        }
+        return result;
+    }
+
+    private static long factorial(int n) {
+        long result = 1;
+        for (int i = 2; i <= n; i++) {
+            result = Math.multiplyExact(result, i);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.manager;
+
+/**
+ * Immutable view of the {@link Manager Manager's} metrics at a single point in time.
+ * Times are reported in milliseconds.
+ */
+public class MetricsSnapshot {
+
+    private final long timestamp;
+    private final int scheduledGames;
+    private final int activeGames;
+    private final int pausedGames;
+    private final int completedGames;
+    private final double gamesPerSecond;
+    private final long turnCount;
+    private final double turnLatencyP50;
+    private final double turnLatencyP90;
+    private final double turnLatencyP99;
+    private final double turnLatencyMax;
+    private final long botTimeouts;
+    private final long botPenalties;
+    private final int replayQueueDepth;
+    private final int replayQueueCapacity;
+    private final long replayBlockedSubmissions;
+    private final double schedulingLatencyMean;
+    private final double schedulingLatencyMax;
+    private final int systemReservedProcessorCount;
+    private final int gameLimit;
+    private final double cpuUtilisation;
+
+    MetricsSnapshot(int scheduledGames, int activeGames, int pausedGames, int completedGames, double gamesPerSecond,
+                    long turnCount, double turnLatencyP50, double turnLatencyP90, double turnLatencyP99, double turnLatencyMax,
+                    long botTimeouts, long botPenalties, int replayQueueDepth, int replayQueueCapacity,
+                    long replayBlockedSubmissions, double schedulingLatencyMean, double schedulingLatencyMax,
+                    int systemReservedProcessorCount, int gameLimit, double cpuUtilisation) {
+        this.timestamp = System.currentTimeMillis();
+        this.scheduledGames = scheduledGames;
+        this.activeGames = activeGames;
+        this.pausedGames = pausedGames;
+        this.completedGames = completedGames;
+        this.gamesPerSecond = gamesPerSecond;
+        this.turnCount = turnCount;
+        this.turnLatencyP50 = turnLatencyP50;
+        this.turnLatencyP90 = turnLatencyP90;
+        this.turnLatencyP99 = turnLatencyP99;
+        this.turnLatencyMax = turnLatencyMax;
+        this.botTimeouts = botTimeouts;
+        this.botPenalties = botPenalties;
+        this.replayQueueDepth = replayQueueDepth;
+        this.replayQueueCapacity = replayQueueCapacity;
+        this.replayBlockedSubmissions = replayBlockedSubmissions;
+        this.schedulingLatencyMean = schedulingLatencyMean;
+        this.schedulingLatencyMax = schedulingLatencyMax;
+        this.systemReservedProcessorCount = systemReservedProcessorCount;
+        this.gameLimit = gameLimit;
+        this.cpuUtilisation = cpuUtilisation;
+    }
+
+    /**
+     * @return Time this snapshot has been taken in milliseconds since epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public int getScheduledGames() {
+        return scheduledGames;
+    }
+
+    public int getActiveGames() {
+        return activeGames;
+    }
+
+    public int getPausedGames() {
+        return pausedGames;
+    }
+
+    public int getCompletedGames() {
+        return completedGames;
+    }
+
+    /**
+     * @return Completed games per second since the first game has been started
+     */
+    public double getGamesPerSecond() {
+        return gamesPerSecond;
+    }
+
+    public long getTurnCount() {
+        return turnCount;
+    }
+
+    public double getTurnLatencyP50() {
+        return turnLatencyP50;
+    }
+
+    public double getTurnLatencyP90() {
+        return turnLatencyP90;
+    }
+
+    public double getTurnLatencyP99() {
+        return turnLatencyP99;
+    }
+
+    public double getTurnLatencyMax() {
+        return turnLatencyMax;
+    }
+
+    public long getBotTimeouts() {
+        return botTimeouts;
+    }
+
+    public long getBotPenalties() {
+        return botPenalties;
+    }
+
+    public int getReplayQueueDepth() {
+        return replayQueueDepth;
+    }
+
+    public int getReplayQueueCapacity() {
+        return replayQueueCapacity;
+    }
+
+    public long getReplayBlockedSubmissions() {
+        return replayBlockedSubmissions;
+    }
+
+    public double getSchedulingLatencyMean() {
+        return schedulingLatencyMean;
+    }
+
+    public double getSchedulingLatencyMax() {
+        return schedulingLatencyMax;
+    }
+
+    public int getSystemReservedProcessorCount() {
+        return systemReservedProcessorCount;
+    }
+
+    public int getGameLimit() {
+        return gameLimit;
+    }
+
+    /**
+     * @return Share of the CPU budget used by the active games, -1 if adaptive concurrency is disabled
+     */
+    public double getCpuUtilisation() {
+        return cpuUtilisation;
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsSnapshot{" +
+                "scheduledGames=" + scheduledGames +
+                ", activeGames=" + activeGames +
+                ", pausedGames=" + pausedGames +
+                ", completedGames=" + completedGames +
+                ", gamesPerSecond=" + gamesPerSecond +
+                ", turnCount=" + turnCount +
+                ", turnLatencyP50=" + turnLatencyP50 +
+                ", turnLatencyP90=" + turnLatencyP90 +
+                ", turnLatencyP99=" + turnLatencyP99 +
+                ", turnLatencyMax=" + turnLatencyMax +
+                ", botTimeouts=" + botTimeouts +
+                ", botPenalties=" + botPenalties +
+                ", replayQueueDepth=" + replayQueueDepth +
+                ", replayQueueCapacity=" + replayQueueCapacity +
+                ", replayBlockedSubmissions=" + replayBlockedSubmissions +
+                ", schedulingLatencyMean=" + schedulingLatencyMean +
+                ", schedulingLatencyMax=" + schedulingLatencyMax +
+                ", systemReservedProcessorCount=" + systemReservedProcessorCount +
+                ", gameLimit=" + gameLimit +
+                ", cpuUtilisation=" + cpuUtilisation +
+                '}';
+    }
+}
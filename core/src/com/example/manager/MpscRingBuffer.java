@@ -0,0 +1,182 @@
+package com.example.manager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free ring buffer for many producers and a single consumer.
+ * <p>
+ * Every slot carries a sequence number, that tells producers whether the slot is free and the consumer whether it has
+ * been published, so neither side takes a lock. Waiting threads spin first, then yield and finally park, which keeps
+ * the handoff latency low while the other side is active, without burning a core while it is not. Parked threads are
+ * woken by the other side.
+ * <p>
+ * Back-pressure: {@link #offer} fails immediately if the buffer is full, {@link #put} waits until the consumer has
+ * made room. Only a single thread may call {@link #poll} and {@link #take}.
+ *
+ * @param <E> type of the elements
+ */
+final class MpscRingBuffer<E> {
+
+    //Spinning and yielding only help if the other side is running on another processor at the same time
+    private static final boolean MULTIPROCESSOR = Runtime.getRuntime().availableProcessors() > 1;
+    private static final int SPIN_TRIES = MULTIPROCESSOR ? 200 : 0;
+    private static final int YIELD_TRIES = MULTIPROCESSOR ? 20 : 0;
+    private static final long PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final Object[] buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(0);
+    //Only accessed by the consumer
+    private long head = 0;
+    //Parked threads are signalled by the first thread of the other side, that takes them out of the registration
+    private final AtomicReference<Thread> parkedConsumer = new AtomicReference<>();
+    //Only a single waiting producer is registered, further ones poll
+    private final AtomicReference<Thread> parkedProducer = new AtomicReference<>();
+
+    /**
+     * @param capacity maximum number of elements, rounded up to the next power of two
+     */
+    MpscRingBuffer(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity of a ring buffer has to be positive");
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        buffer = new Object[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Adds e without waiting.
+     *
+     * @return False, if the buffer is full
+     */
+    boolean offer(E e) {
+        if (e == null) throw new NullPointerException();
+        long position = tail.get();
+        int index;
+        while (true) {
+            index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) break;
+                position = tail.get();
+            } else if (difference < 0) {
+                //The slot still holds the element of the previous round
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+        buffer[index] = e;
+        //A volatile write, so it is ordered before reading parkedConsumer
+        sequences.set(index, position + 1);
+        signal(parkedConsumer);
+        return true;
+    }
+
+    /**
+     * Adds e, waiting for the consumer to make room if the buffer is full.
+     */
+    void put(E e) throws InterruptedException {
+        int tries = 0;
+        while (!offer(e)) {
+            if (Thread.interrupted()) throw new InterruptedException();
+            if (tries < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                Thread current = Thread.currentThread();
+                boolean registered = parkedProducer.compareAndSet(null, current);
+                try {
+                    //Checked again after registering, the consumer might have made room without seeing the registration
+                    if (offer(e)) return;
+                    LockSupport.parkNanos(this, PRODUCER_PARK_NANOS);
+                } finally {
+                    if (registered) parkedProducer.compareAndSet(current, null);
+                }
+            }
+            tries++;
+        }
+    }
+
+    /**
+     * Removes the oldest element without waiting. Must only be called by the consumer.
+     *
+     * @return The oldest element, or null if the buffer is empty
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        int index = (int) head & mask;
+        if (sequences.get(index) != head + 1) return null;
+        E e = (E) buffer[index];
+        buffer[index] = null;
+        //A volatile write, so it is ordered before reading parkedProducer
+        sequences.set(index, head + buffer.length);
+        head++;
+        signal(parkedProducer);
+        return e;
+    }
+
+    private static void signal(AtomicReference<Thread> parked) {
+        Thread thread = parked.get();
+        if (thread != null && parked.compareAndSet(thread, null)) LockSupport.unpark(thread);
+    }
+
+    /**
+     * Removes the oldest element, waiting for a producer if the buffer is empty. Must only be called by the consumer.
+     */
+    E take() throws InterruptedException {
+        E e;
+        int tries = 0;
+        while ((e = poll()) == null) {
+            if (Thread.interrupted()) throw new InterruptedException();
+            if (tries < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                Thread current = Thread.currentThread();
+                parkedConsumer.set(current);
+                try {
+                    //Checked again after registering, a producer publishing in between might not have seen the registration
+                    e = poll();
+                    if (e != null) return e;
+                    LockSupport.park(this);
+                } finally {
+                    parkedConsumer.compareAndSet(current, null);
+                }
+            }
+            tries++;
+        }
+        return e;
+    }
+
+    /**
+     * @return Approximate number of elements in the buffer
+     */
+    int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, buffer.length));
+    }
+
+    int capacity() {
+        return buffer.length;
+    }
+
+    @Override
+    public String toString() {
+        return "MpscRingBuffer{" +
+                "capacity=" + buffer.length +
+                ", size=" + size() +
+                '}';
+    }
+}
@@ -2,18 +2,40 @@ package com.example.manager;
 
 
 import com.example.simulation.GameState;
+import com.example.simulation.SeatSymmetry;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
 
 public class ParallelMultiGameRun extends Run {
 
+    static final File JOURNAL_DIR = new File("journal");
 
-    int completed = 0;
+    private static final int MIN_GAMES_IN_FLIGHT = 16;
+    private static final int GAMES_IN_FLIGHT_PER_PROCESSOR = 8;
+
+    final AtomicInteger completed = new AtomicInteger(0);
 
     int gameCount = 0;
 
     private final float[] scores;
+    //Completing games add their scores without a lock, only the scheduling of further games is serialized
+    private final DoubleAdder[] scoreSums;
+    private final Object schedulingLock = new Object();
+    private boolean finished = false;
+    private RunConfiguration runConfig;
+    private MatchUps matchUps;
+    private int maxGamesInFlight;
+    private int gamesInFlight = 0;
+    private int cachedGames = 0;
     private final Map<Game, Integer[]> playerIndices = new HashMap<>();
+    private final Map<Game, ResultCache.Key> cacheKeys = new HashMap<>();
+    private Map<List<Integer>, float[]> journaledMatchUps = Collections.emptyMap();
+    private RunJournal journal = null;
+    private ResultCache resultCache = null;
 
     protected ParallelMultiGameRun(Manager manager, RunConfiguration runConfig) {
         super(manager, runConfig);
@@ -24,6 +46,7 @@ public class ParallelMultiGameRun extends Run {
             if (runConfig.players.size() != 1) {
                 System.err.println("Exam Admission only accepts exactly 1 player");
                 scores = new float[1];
+                scoreSums = new DoubleAdder[0];
                 complete();
                 return;
             }
@@ -34,82 +57,157 @@ public class ParallelMultiGameRun extends Run {
             getPlayers().addAll(runConfig.players);
             runConfig.mapName = "MangoMap";
         }
-        ArrayList<Integer> indices = new ArrayList<>();
-        for (int i = 0; i < runConfig.players.size(); i++) {
-            indices.add(i);
-        }
+        this.runConfig = runConfig;
         scores = new float[runConfig.players.size()];
-        List<List<Integer>> listOfMatchUps = subsetK(indices, runConfig.teamCount);
-        List<List<Integer>> permListOfMatchUps = new ArrayList<>();
-        for (List<Integer> matchUp : listOfMatchUps) {
-            permListOfMatchUps.addAll(permutations(matchUp));
+        scoreSums = new DoubleAdder[scores.length];
+        for (int i = 0; i < scoreSums.length; i++) {
+            scoreSums[i] = new DoubleAdder();
+        }
+        //Seat orders, that play the same on the map, are represented by a single game
+        matchUps = new MatchUps(runConfig.players.size(), runConfig.teamCount, SeatSymmetry.ofMap(runConfig.mapName, runConfig.teamCount));
+        gameCount = Math.toIntExact(matchUps.size());
+        //Games are played one after another with gui, otherwise enough are scheduled to keep every core busy
+        maxGamesInFlight = runConfig.gui ? 1 : Math.max(MIN_GAMES_IN_FLIGHT, Runtime.getRuntime().availableProcessors() * GAMES_IN_FLIGHT_PER_PROCESSOR);
+
+        if (runConfig.journal && !runConfig.gui) {
+            try {
+                journal = RunJournal.open(JOURNAL_DIR, runConfig);
+                journaledMatchUps = journal.takeCompletedMatchUps();
+            } catch (IOException e) {
+                System.err.println("Unable to open run journal, progress will not be saved: " + e);
+            }
+        }
+        //Cached games produce neither animations nor replays
+        if (runConfig.resultCache && !runConfig.gui && !runConfig.replay)
+            resultCache = manager.getResultCache();
+
+        System.out.println("Running Multigame of size " + gameCount);
+        if (matchUps.getClassSize() > 1)
+            System.out.printf("Map %s is symmetric, every game stands for %d seat orders\n", runConfig.mapName, matchUps.getClassSize());
+        if (!journaledMatchUps.isEmpty())
+            System.out.printf("Resuming from journal %s, %d of %d games have already been completed\n", journal.getFile(), journaledMatchUps.size(), gameCount);
+        synchronized (schedulingLock) {
+            scheduleGames();
         }
+    }
 
-        List<Game> games = new ArrayList<>();
-        Game lastGame = null;
-        Game firstGame = null;
-        for (List<Integer> matchUp : permListOfMatchUps
-        ) {
+    /**
+     * Creates and schedules the games of the next matchups, until maxGamesInFlight games are in flight. Matchups
+     * completed by a previous run or found in the result cache are counted without creating a game.
+     */
+    private void scheduleGames() {
+        while (gamesInFlight < maxGamesInFlight && matchUps.hasNext()) {
+            List<Integer> matchUp = matchUps.next();
+            float[] journaledScores = journaledMatchUps.remove(matchUp);
+            if (journaledScores != null) {
+                //Completed by a previous run with the same configuration
+                addScores(matchUp, journaledScores);
+                continue;
+            }
             GameConfig cur = new GameConfig(runConfig);
             List<Class<? extends Player>> players = new ArrayList<>();
             for (Integer index : matchUp) {
                 players.add(runConfig.players.get(index));
             }
             cur.players = players;
+            //Independent of the other players of the run, so a game can be taken from the cache
+            cur.seed = PlayerDigests.matchUpSeed(cur.mapName, players);
+            ResultCache.Key cacheKey = null;
+            if (resultCache != null) {
+                cacheKey = ResultCache.keyOf(cur);
+                float[] cachedScores = resultCache.get(cacheKey);
+                if (cachedScores != null) {
+                    cachedGames++;
+                    addScores(matchUp, cachedScores);
+                    continue;
+                }
+            }
             Game curGame = new Game(cur);
             curGame.addCompletionListener(this::onGameCompletion);
-            if (runConfig.gui) {
-                if (lastGame != null) {
-                    lastGame.addCompletionListener(g -> {
-                        manager.schedule(curGame);
-                    });
-                } else firstGame = curGame;
-                lastGame = curGame;
-                getGames().add(curGame);
-            }
             playerIndices.put(curGame, matchUp.toArray(new Integer[0]));
-            gameCount++;
-            games.add(curGame);
+            if (cacheKey != null) cacheKeys.put(curGame, cacheKey);
+            gamesInFlight++;
+            addGame(curGame);
         }
-
-        System.out.println("Running Multigame of size " + games.size());
-
-        if (!runConfig.gui) {
-            for (Game game : games) {
-                addGame(game);
-            }
-        } else {
-            manager.schedule(firstGame);
+        if (completed.get() == gameCount && !finished) {
+            finished = true;
+            onRunCompletion();
         }
+    }
 
+    /**
+     * @return Number of completed games including this one
+     */
+    private int addScores(List<Integer> matchUp, float[] gameScores) {
+        for (int i = 0; i < gameScores.length; i++) {
+            scoreSums[matchUp.get(i)].add(gameScores[i] * (double) matchUps.getClassSize());
+        }
+        return completed.incrementAndGet();
     }
 
     public void onGameCompletion(Executable exec) {
         Game game = (Game) exec;
-        Integer[] matchup = playerIndices.get(game);
-        int i = 0;
-        synchronized (scores) {
-            for (float score : game.getScores()) {
-                scores[matchup[i++]] += score;
+        Integer[] matchup;
+        ResultCache.Key cacheKey;
+        synchronized (schedulingLock) {
+            matchup = playerIndices.remove(game);
+            cacheKey = cacheKeys.remove(game);
+        }
+        if (journal != null) {
+            try {
+                journal.append(matchup, game.getScores());
+            } catch (IOException e) {
+                System.err.println("Unable to journal completed game: " + e);
             }
-            if ((completed*100)/gameCount < (completed*100 + 100)/gameCount)
-                System.out.printf("MultiGameRun(%d)-Completion: %d %% \n", hashCode(),(completed*100)/gameCount);
-            completed++;
-        }
-        System.out.println();
-        if (completed == gameCount) {
-            for (int j = 0; j < scores.length; j++) {
-                scores[j] /= gameCount;
+        }
+        if (cacheKey != null && game.getStatus() == Executable.Status.COMPLETED) {
+            try {
+                resultCache.put(cacheKey, game.getScores());
+            } catch (IOException e) {
+                System.err.println("Unable to cache the result of a completed game: " + e);
             }
-            complete();
+        }
+        int done = addScores(Arrays.asList(matchup), game.getScores());
+        if (((done - 1) * 100L) / gameCount < (done * 100L) / gameCount)
+            System.out.printf("MultiGameRun(%d)-Completion: %d %% \n", hashCode(), (done * 100L) / gameCount);
+        publishLeaderboard();
+        synchronized (schedulingLock) {
+            gamesInFlight--;
+            //The games of a gui run are kept for the screens showing them
+            if (!runConfig.gui) removeGame(game);
+            scheduleGames();
         }
     }
 
+    private void onRunCompletion() {
+        if (cachedGames > 0)
+            System.out.printf("Took %d of %d games from the result cache %s\n", cachedGames, gameCount, resultCache.getFile());
+        for (int j = 0; j < scores.length && gameCount > 0; j++) {
+            scores[j] = (float) (scoreSums[j].sum() / ((double) gameCount * matchUps.getClassSize()));
+        }
+        //The results are final, a new run with the same configuration starts from scratch
+        if (journal != null) journal.delete();
+        complete();
+    }
+
     @Override
     public float[] getScores() {
         return scores;
     }
 
+    /**
+     * Reads the scores without a lock. A game completing concurrently may be partially included.
+     */
+    @Override
+    public Leaderboard getLeaderboard() {
+        int done = completed.get();
+        float[] current = new float[scoreSums.length];
+        for (int j = 0; j < current.length && done > 0; j++) {
+            current[j] = (float) (scoreSums[j].sum() / ((double) done * matchUps.getClassSize()));
+        }
+        return new Leaderboard(Collections.unmodifiableList(getPlayers()), current, done, gameCount, isCompleted());
+    }
+
 
     protected static <T> List<List<T>> subsetK(List<T> list, int subSetSize) {
         ArrayList<List<T>> results = new ArrayList<>();
@@ -2,7 +2,7 @@ package com.example.manager;
 
 import com.example.simulation.GameState;
 
-import java.util.Random;
+import java.util.Objects;
 
 public abstract class Player {
 
@@ -45,7 +45,8 @@ public abstract class Player {
      * @return der Name des Skins, der der angegebene Charakter im UI modus haben soll
      */
     public String getSkin(int characterIndex){
-        switch (new Random().nextInt(4)) {
+        //Derived from the name, so a player keeps its skins across games and replays
+        switch (Math.floorMod(Objects.hash(getName(), characterIndex), 4)) {
             case 1:
                 return "orangeCatSkin";
 
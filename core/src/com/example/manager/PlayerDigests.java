@@ -0,0 +1,133 @@
+package com.example.manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Identifies players by the hash of their bytecode, so results of unchanged players can be recognized across runs.
+ * <p>
+ * The seed of a game in a multi-game run is derived from the map and the bytecode of its players in seating order
+ * only. Adding, removing or changing another player of the run does not change it, unless it shares the package
+ * directory of the player.
+ */
+final class PlayerDigests {
+
+    private static final Map<Class<?>, byte[]> digests = new ConcurrentHashMap<>();
+
+    private PlayerDigests() {
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * @return SHA-256 of the name and the class files of player. If player was loaded from a directory like the bots,
+     * every class file of its package and the packages below is included, as the player may use any of them, except
+     * those of other players. Classes without accessible bytecode are identified by their name only
+     */
+    static byte[] digest(Class<?> player) {
+        return digests.computeIfAbsent(player, cls -> {
+            MessageDigest digest = newDigest();
+            digest.update(cls.getName().getBytes(StandardCharsets.UTF_8));
+            try {
+                for (Map.Entry<String, URL> classFile : classFiles(cls).entrySet()) {
+                    digest.update(classFile.getKey().getBytes(StandardCharsets.UTF_8));
+                    try (InputStream in = classFile.getValue().openStream()) {
+                        byte[] buffer = new byte[8192];
+                        int read;
+                        while ((read = in.read(buffer)) > 0) digest.update(buffer, 0, read);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Unable to read the class files of " + cls.getName() + ", it is identified by its name: " + e);
+            }
+            return digest.digest();
+        });
+    }
+
+    /**
+     * @return The class file of cls and, if it was loaded from a directory like the bots, every class file in the
+     * directory of its package and below, that does not belong to another player, keyed and ordered by their path
+     * relative to that directory
+     */
+    private static SortedMap<String, URL> classFiles(Class<?> cls) throws IOException {
+        String name = cls.getName().substring(cls.getName().lastIndexOf('.') + 1);
+        SortedMap<String, URL> files = new TreeMap<>();
+        URL classFile = cls.getResource(name + ".class");
+        if (classFile == null) return files;
+        files.put(name + ".class", classFile);
+        if (!"file".equals(classFile.getProtocol())) return files;
+        Path directory;
+        try {
+            directory = Paths.get(classFile.toURI()).getParent();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return files;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.filter(file -> file.toString().endsWith(".class"))::iterator) {
+                //The same separator on every platform, so the digest does not depend on it
+                String relative = directory.relativize(path).toString().replace(File.separatorChar, '/');
+                if (!isOtherPlayer(cls, relative)) files.put(relative, path.toUri().toURL());
+            }
+        }
+        return files;
+    }
+
+    /**
+     * @param relative path of a class file relative to the package directory of player
+     * @return True, if the class file belongs to a player other than player, e.g. another bot in the bots directory
+     */
+    private static boolean isOtherPlayer(Class<?> player, String relative) {
+        String topLevel = relative.substring(0, relative.length() - ".class".length()).replace('/', '.');
+        if (topLevel.indexOf('$') >= 0) topLevel = topLevel.substring(0, topLevel.indexOf('$'));
+        String packageName = player.getName().substring(0, player.getName().lastIndexOf('.') + 1);
+        //The classes nested in the same top level class as player belong to it
+        String playerTopLevel = player.getName().substring(packageName.length()).split("\\$")[0];
+        if (topLevel.equals(playerTopLevel)) return false;
+        try {
+            //Loaded without initialization, only the type hierarchy is inspected
+            return Player.class.isAssignableFrom(Class.forName(packageName + topLevel, false, player.getClassLoader()));
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param mapName the map of the game
+     * @param players the players of the game in seating order
+     * @return Seed of the game, the same for every run with the same players on the same map
+     */
+    static long matchUpSeed(String mapName, List<Class<? extends Player>> players) {
+        MessageDigest digest = newDigest();
+        for (int i = 0; i < 8; i++) {
+            digest.update((byte) (Manager.DEFAULT_SEED >>> 8 * i));
+        }
+        digest.update(String.valueOf(mapName).getBytes(StandardCharsets.UTF_8));
+        for (Class<? extends Player> player : players) {
+            digest.update(digest(player));
+        }
+        long seed = 0;
+        byte[] hash = digest.digest();
+        for (int i = 0; i < 8; i++) {
+            seed = seed << 8 | (hash[i] & 0xff);
+        }
+        return seed;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.manager;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Estimates the ranking of the players of a multi-game run from the scores of the games played so far.
+ * <p>
+ * Mean and variance of every player's game scores are updated incrementally (Welford). Two players adjacent in the
+ * ranking are separated, if the difference of their means exceeds the confidence interval of that difference. The
+ * confidence is split evenly among the playerCount - 1 adjacent pairs (Bonferroni), so the whole ranking holds at the
+ * requested level. Two players are tied instead, if the confidence interval of their difference lies within the
+ * tolerance, the order of such players does not matter. The normal approximation is used, which is why every player
+ * needs a minimum number of games.
+ * <p>
+ * Not thread safe.
+ */
+final class RankingEstimate {
+
+    private final int[] games;
+    private final double[] means;
+    private final double[] squaredDeviations;
+    private final int minGames;
+    private final double tolerance;
+
+    /**
+     * @param playerCount number of players of the run
+     * @param minGames    games every player has to play, before its estimate is trusted
+     * @param tolerance   difference of the mean scores, below which two players are tied
+     */
+    RankingEstimate(int playerCount, int minGames, double tolerance) {
+        if (minGames < 2) throw new IllegalArgumentException("At least 2 games are needed to estimate a variance");
+        games = new int[playerCount];
+        means = new double[playerCount];
+        squaredDeviations = new double[playerCount];
+        this.minGames = minGames;
+        this.tolerance = tolerance;
+    }
+
+    void add(int player, double score) {
+        games[player]++;
+        double delta = score - means[player];
+        means[player] += delta / games[player];
+        squaredDeviations[player] += delta * (score - means[player]);
+    }
+
+    int getGames(int player) {
+        return games[player];
+    }
+
+    double getMean(int player) {
+        return means[player];
+    }
+
+    /**
+     * @return Squared standard error of the player's mean score
+     */
+    double getVarianceOfMean(int player) {
+        if (games[player] < 2) return Double.POSITIVE_INFINITY;
+        return squaredDeviations[player] / (games[player] - 1) / games[player];
+    }
+
+    /**
+     * @return Player indices from the highest to the lowest mean score
+     */
+    Integer[] ranking() {
+        Integer[] ranking = new Integer[games.length];
+        for (int i = 0; i < ranking.length; i++) ranking[i] = i;
+        Arrays.sort(ranking, Comparator.comparingDouble((Integer player) -> -means[player]));
+        return ranking;
+    }
+
+    /**
+     * @return The player with the fewest games, if it has less than the minimum, -1 otherwise
+     */
+    int leastPlayed() {
+        int least = -1;
+        for (int i = 0; i < games.length; i++) {
+            if (games[i] < minGames && (least < 0 || games[i] < games[least])) least = i;
+        }
+        return least;
+    }
+
+    /**
+     * Finds the adjacent pair of the ranking, that is least resolved: among the pairs, that are neither separated nor
+     * tied, the one with the smallest ratio of mean difference to confidence margin.
+     *
+     * @param confidence probability, that the whole ranking is correct
+     * @return The position in the {@link #ranking()} of the upper player of the pair, -1 if the ranking is stable
+     */
+    int mostUncertainPair(Integer[] ranking, double confidence) {
+        if (leastPlayed() >= 0) return 0;
+        double z = normalQuantile(1 - (1 - confidence) / 2 / Math.max(1, ranking.length - 1));
+        int uncertain = -1;
+        double lowestRatio = Double.POSITIVE_INFINITY;
+        for (int i = 0; i + 1 < ranking.length; i++) {
+            int upper = ranking[i];
+            int lower = ranking[i + 1];
+            double difference = means[upper] - means[lower];
+            double margin = z * Math.sqrt(getVarianceOfMean(upper) + getVarianceOfMean(lower));
+            //Both players always scored the same, their means are exact and the pair is separated or tied
+            if (margin == 0) continue;
+            if (difference > margin || difference + margin < tolerance) continue;
+            double ratio = difference / margin;
+            if (ratio < lowestRatio) {
+                lowestRatio = ratio;
+                uncertain = i;
+            }
+        }
+        return uncertain;
+    }
+
+    /**
+     * @return True, if every player has played the minimum number of games and all adjacent pairs of the ranking are
+     * separated or tied at the given confidence
+     */
+    boolean isStable(double confidence) {
+        return mostUncertainPair(ranking(), confidence) < 0;
+    }
+
+    /**
+     * Inverse of the standard normal distribution function, with a relative error below 1.2e-9 (Acklam's rational
+     * approximation).
+     *
+     * @param p probability in (0, 1)
+     */
+    static double normalQuantile(double p) {
+        if (!(p > 0 && p < 1)) throw new IllegalArgumentException("Probability must be in (0, 1): " + p);
+        final double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        final double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                6.680131188771972e+01, -1.328068155288572e+01};
+        final double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        final double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                3.754408661907416e+00};
+        final double low = 0.02425;
+        if (p < low || p > 1 - low) {
+            double q = Math.sqrt(-2 * Math.log(p < low ? p : 1 - p));
+            double x = (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+            return p < low ? x : -x;
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.manager;
+
+import com.example.simulation.GameState;
+
+import java.io.IOException;
+
+/**
+ * Stand-in for a bot, that is executed in a process leased from a {@link BotProcessPool}.
+ * <p>
+ * If the process has been recycled, e.g. after the bot exceeded a deadline, the bot is initialized in a new process
+ * with the current state at the beginning of its next turn. State kept by the bot between turns is lost in this case.
+ */
+class RemoteBot extends Player {
+
+    private final Class<? extends Player> botClass;
+    private final BotProcessPool pool;
+    private final long seed;
+    private volatile BotProcess process;
+    private volatile String name;
+
+    RemoteBot(Class<? extends Player> botClass, BotProcessPool pool, long seed) {
+        this.botClass = botClass;
+        this.pool = pool;
+        this.seed = seed;
+    }
+
+    @Override
+    public String getName() {
+        return name != null ? name : botClass.getSimpleName();
+    }
+
+    /**
+     * Leases the process, the bot is initialized in.
+     */
+    void prepare() {
+        if (process == null) lease();
+    }
+
+    @Override
+    protected void init(GameState state) {
+        BotProcess current = process != null ? process : lease();
+        try {
+            name = current.init(botClass.getName(), seed, state);
+        } catch (IOException e) {
+            onFailure(current, e);
+        }
+    }
+
+    @Override
+    protected void executeTurn(GameState state, Controller controller) {
+        BotProcess current = process;
+        try {
+            if (current == null) {
+                current = lease();
+                name = current.init(botClass.getName(), seed, state);
+            }
+            current.executeTurn(state, controller);
+        } catch (IOException e) {
+            onFailure(current, e);
+        }
+    }
+
+    @Override
+    protected PlayerType getType() {
+        return PlayerType.AI;
+    }
+
+    private BotProcess lease() {
+        try {
+            BotProcess current = pool.lease();
+            process = current;
+            return current;
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to start a process for " + getName(), e);
+        }
+    }
+
+    private void onFailure(BotProcess current, IOException e) {
+        //A process killed after its deadline fails by design, the turn has already been ended
+        if (current == null || current.isKilled()) return;
+        if (process == current) process = null;
+        pool.recycle(current);
+        throw new RuntimeException("Process of " + getName() + " failed", e);
+    }
+
+    /**
+     * Kills the process of this bot. Used to enforce deadlines instead of stopping the executing thread.
+     */
+    void recycle() {
+        BotProcess current = process;
+        process = null;
+        if (current != null) pool.recycle(current);
+    }
+
+    /**
+     * Returns the process of this bot to the pool, at the end of the game.
+     */
+    void release() {
+        BotProcess current = process;
+        process = null;
+        if (current != null) pool.release(current);
+    }
+
+    @Override
+    public String toString() {
+        return "RemoteBot{" +
+                "botClass=" + botClass.getName() +
+                ", process=" + process +
+                '}';
+    }
+}
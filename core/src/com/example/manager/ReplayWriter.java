@@ -0,0 +1,248 @@
+package com.example.manager;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persists {@link GameResults} as replay files on dedicated writer threads.
+ * <p>
+ * Results are handed over through a bounded queue. Writers drain up to batchSize results per wake-up and write them
+ * back-to-back, reusing the output buffer. If the queue is full, {@link #submit(GameResults)} blocks the submitting
+ * thread until a writer frees space, the time spent blocking is recorded as back-pressure.
+ */
+public class ReplayWriter {
+
+    private static final String namePrefix = "Replay_Writer_";
+    private static final long CLOSE_POLL_INTERVAL = 100;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final File resultDir;
+    private final BlockingQueue<GameResults> queue;
+    private final int writerCount;
+    private final int batchSize;
+    private final List<Thread> writers = new ArrayList<>();
+    private volatile boolean closed = false;
+
+    private final AtomicInteger fileNumber = new AtomicInteger(0);
+    private final AtomicLong submitted = new AtomicLong(0);
+    private final AtomicLong written = new AtomicLong(0);
+    private final AtomicLong failed = new AtomicLong(0);
+    private final AtomicLong batches = new AtomicLong(0);
+    private final AtomicLong blockedSubmissions = new AtomicLong(0);
+    private final AtomicLong blockedNanos = new AtomicLong(0);
+    private final AtomicInteger maxQueueDepth = new AtomicInteger(0);
+
+    /**
+     * @param resultDir    directory the replays are written to, created on demand
+     * @param capacity     maximum number of results waiting to be written
+     * @param writerCount  number of writer threads
+     * @param batchSize    maximum number of results written per wake-up of a writer
+     */
+    public ReplayWriter(File resultDir, int capacity, int writerCount, int batchSize) {
+        if (capacity <= 0 || writerCount <= 0 || batchSize <= 0)
+            throw new IllegalArgumentException("Capacity, writer count and batch size of a ReplayWriter have to be positive");
+        this.resultDir = resultDir;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writerCount = writerCount;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Queues the results to be written. Blocks while the queue is full.
+     *
+     * @param results the results to persist
+     */
+    public void submit(GameResults results) {
+        if (results == null) return;
+        startWriters();
+        if (!closed) {
+            enqueue(results);
+            //close() drains the queue after it has been closed, a result queued after that is written by the caller
+            if (closed) drainQueue();
+            return;
+        }
+        //Late results are written by the caller to not lose any replays
+        if (resultDir.exists() || resultDir.mkdirs()) write(results, new ByteArrayOutputStream(BUFFER_SIZE));
+        else failed.incrementAndGet();
+    }
+
+    /**
+     * Blocks while the queue is full, without holding a lock, so other submitters and close() are not held up.
+     */
+    private void enqueue(GameResults results) {
+        submitted.incrementAndGet();
+        if (!queue.offer(results)) {
+            blockedSubmissions.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                queue.put(results);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                System.err.println("Interrupted while waiting for the replay queue, the replay will not be saved");
+                failed.incrementAndGet();
+                return;
+            } finally {
+                blockedNanos.addAndGet(System.nanoTime() - start);
+            }
+        }
+        maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+    }
+
+    private synchronized void startWriters() {
+        if (!writers.isEmpty() || closed) return;
+        for (int i = 0; i < writerCount; i++) {
+            Thread writer = new Thread(this::writeLoop);
+            writer.setName(namePrefix + i);
+            writers.add(writer);
+            writer.start();
+        }
+    }
+
+    private void writeLoop() {
+        List<GameResults> batch = new ArrayList<>(batchSize);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(BUFFER_SIZE);
+        while (true) {
+            try {
+                GameResults first = queue.poll(CLOSE_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed) break;
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                if (queue.isEmpty()) break;
+                continue;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            batches.incrementAndGet();
+            if (resultDir.exists() || resultDir.mkdirs()) {
+                for (GameResults results : batch) {
+                    write(results, buffer);
+                }
+            } else {
+                System.err.printf("Unable to create results directory at %s %n", resultDir);
+                failed.addAndGet(batch.size());
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(GameResults results, ByteArrayOutputStream buffer) {
+        String fileName = String.format("%s/%s_%d_%d.replay", resultDir, results.getConfig().gameMode, System.currentTimeMillis(), fileNumber.getAndIncrement());
+        buffer.reset();
+        try (ObjectOutputStream out = new ObjectOutputStream(buffer)) {
+            out.writeObject(results);
+        } catch (IOException e) {
+            System.err.printf("Unable to serialize replay for %s %n", fileName);
+            failed.incrementAndGet();
+            return;
+        }
+        try (FileOutputStream fs = new FileOutputStream(fileName)) {
+            buffer.writeTo(fs);
+            written.incrementAndGet();
+        } catch (IOException e) {
+            System.err.printf("Unable to save replay at %s %n", fileName);
+            failed.incrementAndGet();
+        }
+    }
+
+    /**
+     * Stops accepting new work and waits until all queued results have been written.
+     */
+    public void close() {
+        List<Thread> running;
+        synchronized (this) {
+            closed = true;
+            running = new ArrayList<>(writers);
+        }
+        for (Thread writer : running) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        //Results submitted while the writers were shutting down
+        drainQueue();
+    }
+
+    private void drainQueue() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(BUFFER_SIZE);
+        GameResults results;
+        while ((results = queue.poll()) != null) {
+            if (resultDir.exists() || resultDir.mkdirs()) write(results, buffer);
+            else failed.incrementAndGet();
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getQueueCapacity() {
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    public int getWriterCount() {
+        return writerCount;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    /**
+     * @return How often a submitting thread had to wait for free space in the queue
+     */
+    public long getBlockedSubmissions() {
+        return blockedSubmissions.get();
+    }
+
+    /**
+     * @param unit the unit of the returned value
+     * @return Accumulated time submitting threads were blocked by a full queue
+     */
+    public long getBlockedTime(TimeUnit unit) {
+        return unit.convert(blockedNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "ReplayWriter{" +
+                "queueDepth=" + getQueueDepth() +
+                ", queueCapacity=" + getQueueCapacity() +
+                ", writerCount=" + writerCount +
+                ", submitted=" + submitted +
+                ", written=" + written +
+                ", failed=" + failed +
+                ", blockedSubmissions=" + blockedSubmissions +
+                '}';
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.manager;
+
+import com.example.simulation.Simulation;
+
+import java.io.*;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent cache of the scores of completed games, shared by all multi-game runs.
+ * <p>
+ * A game is identified by the bytecode of its players in seating order, the map, the game mode, the seed and the
+ * {@link Simulation#ENGINE_VERSION engine version}. A run, in which a single bot has been replaced, only plays the
+ * games of this bot again. Records are protected by a checksum like those of the {@link RunJournal}, a record torn by a
+ * crash is discarded when the cache is opened.
+ * <p>
+ * The outcome of a game is only reproducible, if its bots do not depend on timing. Games, that have been decided by a
+ * timeout, are cached with the outcome of their first run.
+ */
+public class ResultCache implements Closeable {
+
+    static final File CACHE_DIR = new File("cache");
+
+    private static final int MAGIC = 0x52434348;
+    private static final int VERSION = 1;
+    private static final String FILE_NAME = "results.cache";
+    private static final int KEY_LENGTH = 32;
+
+    private final File file;
+    private final Map<Key, float[]> results = new HashMap<>();
+    private final DataOutputStream out;
+    private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream(64);
+    private final DataOutputStream record = new DataOutputStream(recordBuffer);
+    private final CRC32 crc = new CRC32();
+    private int hits = 0;
+    private boolean closed = false;
+
+    /**
+     * Identifies a game, see {@link #keyOf(GameConfig)}
+     */
+    static final class Key {
+        private final byte[] hash;
+        private final int hashCode;
+
+        private Key(byte[] hash) {
+            this.hash = hash;
+            this.hashCode = Arrays.hashCode(hash);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && Arrays.equals(hash, ((Key) o).hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private ResultCache(File file) throws IOException {
+        this.file = file;
+        long validLength = file.exists() ? readRecords() : 0;
+        if (validLength < file.length()) {
+            System.err.printf("Discarding %d bytes of an incomplete result cache record in %s%n", file.length() - validLength, file);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(validLength);
+            }
+        }
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        if (validLength == 0) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.flush();
+        }
+    }
+
+    /**
+     * Opens the cache in dir, creating it if it does not exist yet.
+     *
+     * @param dir directory of the cache, created on demand
+     */
+    public static ResultCache open(File dir) throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) throw new IOException("Unable to create result cache directory at " + dir);
+        return new ResultCache(new File(dir, FILE_NAME));
+    }
+
+    /**
+     * @param config the configuration of a single game, with its players in seating order and its seed
+     * @return The key of the game
+     */
+    static Key keyOf(GameConfig config) {
+        MessageDigest digest = PlayerDigests.newDigest();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64);
+        try (DataOutputStream data = new DataOutputStream(buffer)) {
+            data.writeInt(Simulation.ENGINE_VERSION);
+            data.writeUTF(String.valueOf(config.gameMode));
+            data.writeUTF(String.valueOf(config.mapName));
+            data.writeInt(config.teamCount);
+            data.writeLong(config.seed);
+            data.writeLong(config.botAllocationLimit);
+            data.writeBoolean(config.isolatedBots);
+            data.writeInt(config.stalemateRules.getTurnsWithoutAction());
+            data.writeInt(config.stalemateRules.getTurnsWithoutScoreChange());
+            data.writeInt(config.stalemateRules.getMaxTurns());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        digest.update(buffer.toByteArray());
+        for (Class<? extends Player> player : config.players) {
+            digest.update(PlayerDigests.digest(player));
+        }
+        return new Key(digest.digest());
+    }
+
+    /**
+     * Reads all valid records.
+     *
+     * @return Length of the valid part of the file
+     */
+    private long readRecords() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            try {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION)
+                    throw new IOException("Unknown result cache format in " + file);
+            } catch (EOFException e) {
+                //Header has not been written completely
+                return 0;
+            }
+            long position = 4 + 4;
+            while (true) {
+                try {
+                    int length = in.readInt();
+                    if (length <= KEY_LENGTH || length > 1 << 16) return position;
+                    byte[] payload = new byte[length];
+                    in.readFully(payload);
+                    crc.reset();
+                    crc.update(payload);
+                    if (in.readLong() != crc.getValue()) return position;
+                    parseRecord(payload);
+                    position += 4 + length + 8;
+                } catch (EOFException e) {
+                    return position;
+                }
+            }
+        }
+    }
+
+    private void parseRecord(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte[] hash = new byte[KEY_LENGTH];
+        in.readFully(hash);
+        float[] scores = new float[in.readUnsignedShort()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = in.readFloat();
+        }
+        results.put(new Key(hash), scores);
+    }
+
+    /**
+     * @return The scores of the game in seating order, or null if it has not been cached
+     */
+    public synchronized float[] get(Key key) {
+        float[] scores = results.get(key);
+        if (scores == null) return null;
+        hits++;
+        return scores.clone();
+    }
+
+    /**
+     * Adds the scores of a completed game. The record is flushed, but not forced to disk, a lost record only costs
+     * playing the game again.
+     *
+     * @param key    the key of the game
+     * @param scores the scores of the game in seating order
+     */
+    public synchronized void put(Key key, float[] scores) throws IOException {
+        if (closed) throw new IOException("Result cache " + file + " has already been closed");
+        if (results.containsKey(key)) return;
+        recordBuffer.reset();
+        record.write(key.hash);
+        record.writeShort(scores.length);
+        for (float score : scores) {
+            record.writeFloat(score);
+        }
+        crc.reset();
+        crc.update(recordBuffer.toByteArray());
+        out.writeInt(recordBuffer.size());
+        recordBuffer.writeTo(out);
+        out.writeLong(crc.getValue());
+        out.flush();
+        results.put(key, scores.clone());
+    }
+
+    /**
+     * @return Number of games answered from the cache since it has been opened
+     */
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        out.close();
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ResultCache{" +
+                "file=" + file +
+                ", results=" + results.size() +
+                ", hits=" + hits +
+                '}';
+    }
+}
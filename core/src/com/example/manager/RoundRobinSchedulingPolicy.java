@@ -0,0 +1,44 @@
+package com.example.manager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Alternates between the {@link Run Runs} that have games waiting, so a large run can't starve a smaller one
+ * that has been started later. Within a single run, games are selected in the order they have been scheduled.
+ */
+public class RoundRobinSchedulingPolicy implements SchedulingPolicy {
+
+    private final Map<Run, Long> lastServed = new WeakHashMap<>();
+    private long lastServedWithoutRun = -1;
+    private long servedCount = 0;
+
+    @Override
+    public Executable select(List<Executable> candidates) {
+        Executable selected = null;
+        long selectedServed = Long.MAX_VALUE;
+        for (Executable candidate : candidates) {
+            long served = getLastServed(candidate.getRun());
+            //Strict comparison keeps FIFO order between games of the same run
+            if (served < selectedServed) {
+                selected = candidate;
+                selectedServed = served;
+            }
+        }
+        assert selected != null;
+        if (selected.getRun() == null) lastServedWithoutRun = servedCount++;
+        else lastServed.put(selected.getRun(), servedCount++);
+        return selected;
+    }
+
+    private long getLastServed(Run run) {
+        if (run == null) return lastServedWithoutRun;
+        return lastServed.getOrDefault(run, -1L);
+    }
+
+    @Override
+    public String toString() {
+        return "RoundRobinSchedulingPolicy";
+    }
+}
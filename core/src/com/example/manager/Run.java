@@ -1,9 +1,12 @@
 package com.example.manager;
 
 import com.example.simulation.GameState;
+import com.example.simulation.StalemateRules;
 import jdk.jshell.spi.ExecutionControl;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.function.Consumer;
 
 public abstract class Run {
 
@@ -20,6 +23,7 @@ public abstract class Run {
 
     private boolean disposed = false;
     private final ArrayList<Class<? extends Player>> players;
+    private final LeaderboardFeed leaderboardFeed = new LeaderboardFeed(this::getLeaderboard);
 
     public Run(Manager manager, RunConfiguration runConfig) {
         this.players = new ArrayList<>(runConfig.players);
@@ -28,13 +32,20 @@ public abstract class Run {
     }
 
     public static Run getRun(Manager manager, RunConfiguration runConfig) {
+        if (runConfig.stalemateRules == null)
+            runConfig.stalemateRules = isHeadlessMultiGame(runConfig) ? StalemateRules.HEADLESS : StalemateRules.NONE;
         switch (runConfig.gameMode) {
             case Campaign:
             case Replay:
             case Normal:
                 return new SingleGameRun(manager, runConfig);
-            case Exam_Admission:
             case Tournament_Phase_1:
+                if (runConfig.workerProcesses > 0 && !runConfig.gui)
+                    return new ShardedMultiGameRun(manager, runConfig);
+                if (runConfig.rankingConfidence > 0 && !runConfig.gui)
+                    return new AdaptiveMultiGameRun(manager, runConfig);
+                return new ParallelMultiGameRun(manager, runConfig);
+            case Exam_Admission:
                 return new ParallelMultiGameRun(manager, runConfig);
             case Tournament_Phase_2:
                 return new TournamentRun(manager, runConfig);
@@ -43,6 +54,21 @@ public abstract class Run {
         }
     }
 
+    /**
+     * @return True, if the run plays several games of bots without gui, which end after a while, if undecided
+     */
+    private static boolean isHeadlessMultiGame(RunConfiguration runConfig) {
+        if (runConfig.gui) return false;
+        switch (runConfig.gameMode) {
+            case Tournament_Phase_1:
+            case Tournament_Phase_2:
+            case Exam_Admission:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     public ArrayList<Executable> getGames() {
         return games;
     }
@@ -50,12 +76,22 @@ public abstract class Run {
     protected void addGame(Executable game) {
         synchronized (schedulingLock) {
             if (!disposed) {
+                game.setRun(this);
                 games.add(game);
                 manager.schedule(game);
             }
         }
     }
 
+    /**
+     * Removes a completed game, so runs creating their games on demand do not keep all of them.
+     */
+    protected void removeGame(Executable game) {
+        synchronized (schedulingLock) {
+            games.remove(game);
+        }
+    }
+
     public void dispose() {
         synchronized (schedulingLock) {
             disposed = true;
@@ -85,10 +121,41 @@ public abstract class Run {
                 completionListener.onComplete(this);
             }
         }
+        publishLeaderboard();
     }
 
     public abstract float[] getScores();
 
+    /**
+     * Snapshot of the current standings. Runs, that do not track their scores while they progress, count as a single
+     * game, that is completed together with the run.
+     */
+    public Leaderboard getLeaderboard() {
+        boolean completed = isCompleted();
+        float[] scores = completed ? getScores().clone() : new float[players.size()];
+        return new Leaderboard(Collections.unmodifiableList(players), scores, completed ? 1 : 0, 1, completed);
+    }
+
+    /**
+     * Delivers the {@link #getLeaderboard() standings} to the subscriber, whenever they change, on a separate thread.
+     * Subscribers of a completed run receive the final standings.
+     */
+    public void subscribe(Consumer<Leaderboard> subscriber) {
+        leaderboardFeed.subscribe(subscriber);
+        if (isCompleted()) leaderboardFeed.publish();
+    }
+
+    public void unsubscribe(Consumer<Leaderboard> subscriber) {
+        leaderboardFeed.unsubscribe(subscriber);
+    }
+
+    /**
+     * Notifies the subscribers of changed standings without blocking.
+     */
+    protected void publishLeaderboard() {
+        leaderboardFeed.publish();
+    }
+
     public void addCompletionListener(CompletionHandler<Run> handler) {
         synchronized (schedulingLock) {
             completionListeners.add(handler);
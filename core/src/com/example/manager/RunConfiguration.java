@@ -1,9 +1,11 @@
 package com.example.manager;
 
 import com.example.simulation.GameState;
+import com.example.simulation.StalemateRules;
 import com.example.ui.hud.UiMessenger;
 
 import java.util.ArrayList;
+import java.util.List;
 
 public class RunConfiguration {
 
@@ -27,6 +29,69 @@ public class RunConfiguration {
 
     public boolean replay = false;
 
+    /**
+     * Runs the game loops on virtual threads, if supported by the JVM. Bots always run on platform threads. Brings no
+     * measured benefit yet, see {@link GameThreads}.
+     */
+    public boolean virtualThreads = false;
+
+    /**
+     * Runs bots in pre-warmed child processes of the {@link Manager#getBotProcessPool() bot process pool}.
+     * Deadlines are then enforced by killing the process instead of stopping the bot's thread.
+     */
+    public boolean isolatedBots = false;
+
+    /**
+     * Journals every completed game of a multi-game run. A run with the same configuration, restarted after a crash,
+     * only plays the games missing from the journal.
+     */
+    public boolean journal = false;
+
+    /**
+     * Takes the scores of games, that have been played with the same bots, map and seed before, from the
+     * {@link ResultCache} instead of playing them again. Not used with gui or replays.
+     */
+    public boolean resultCache = false;
+
+    /**
+     * Number of worker JVMs the games of a Tournament_Phase_1 run are distributed to. 0 runs all games in this JVM.
+     */
+    public int workerProcesses = 0;
+
+    /**
+     * Bytes a bot may allocate on the heap within a single turn. A bot exceeding it is penalized like a bot that failed
+     * its turn, its further commands of that turn are discarded. 0 disables the limit. Not enforced for isolated bots.
+     */
+    public long botAllocationLimit = 0;
+
+    /**
+     * Ends games, that are not decided by their players, see {@link StalemateRules}. Null selects
+     * {@link StalemateRules#HEADLESS} for multi-game runs without gui and {@link StalemateRules#NONE} otherwise.
+     */
+    public StalemateRules stalemateRules = null;
+
+    /**
+     * Probability, at which the ranking of a Tournament_Phase_1 run has to hold, before the {@link AdaptiveMultiGameRun}
+     * stops sampling matchups. 0 plays every matchup. Not used with gui or worker processes.
+     */
+    public double rankingConfidence = 0;
+
+    /**
+     * Difference of the mean scores per game, below which the {@link AdaptiveMultiGameRun} considers two players tied.
+     */
+    public double rankingTolerance = 25;
+
+    /**
+     * Maps of the bracket series of a Tournament_Phase_2 run, the i-th game of a series is played on map i modulo the
+     * size of the pool. Null plays the default tournament maps.
+     */
+    public List<String> mapPool = null;
+
+    /**
+     * Maximal number of games of a bracket series. A series ends, as soon as one player has won the majority of them.
+     */
+    public int seriesLength = 3;
+
     public int teamCount;
 
     public ArrayList<Class<? extends Player>> players;
@@ -46,6 +111,14 @@ public class RunConfiguration {
         if(gameMode == null){
             return false;
         }
+        if(seriesLength <= 0){
+            System.err.println("RunConfig: SeriesLength is not valid. Length: " + seriesLength);
+            return false;
+        }
+        if(rankingConfidence < 0 || rankingConfidence >= 1){
+            System.err.println("RunConfig: RankingConfidence is not in [0, 1). Confidence: " + rankingConfidence);
+            return false;
+        }
 
         return true;
     }
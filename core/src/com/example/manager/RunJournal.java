@@ -0,0 +1,302 @@
+package com.example.manager;
+
+import com.example.simulation.Simulation;
+import com.example.simulation.StalemateRules;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead journal of the games completed by a multi-game run.
+ * <p>
+ * Every completed matchup is appended together with its scores and forced to disk before the game counts as completed.
+ * Records appended while a sync is in progress are forced to disk together by the next sync (group commit), so the
+ * games completing at the same time do not wait for one sync each.
+ * The journal file is named after a hash of the run configuration, including the bytecode of the players, so a
+ * restarted run with the same configuration finds the journal of its predecessor and only schedules the remaining
+ * matchups. Records are protected by a checksum, a record torn by a crash is discarded when the journal is opened.
+ */
+public class RunJournal implements Closeable {
+
+    private static final int MAGIC = 0x524a4e4c;
+    private static final int VERSION = 2;
+    private static final String FILE_EXTENSION = ".journal";
+
+    private final File file;
+    //Only the matchups of previous runs, until they are taken
+    private Map<List<Integer>, float[]> completedMatchUps = new HashMap<>();
+    private final DataOutputStream out;
+    private final FileOutputStream fileOut;
+    private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream(64);
+    private final DataOutputStream record = new DataOutputStream(recordBuffer);
+    private final CRC32 crc = new CRC32();
+    private boolean closed = false;
+    //Number of records written to the stream and number of records forced to disk, guarded by this
+    private long appended = 0;
+    private long synced = 0;
+    private boolean syncing = false;
+
+    private RunJournal(File file, String runKey) throws IOException {
+        this.file = file;
+        long validLength = file.exists() ? readRecords(runKey) : 0;
+        if (validLength < file.length()) {
+            System.err.printf("Discarding %d bytes of an incomplete journal record in %s%n", file.length() - validLength, file);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(validLength);
+            }
+        }
+        fileOut = new FileOutputStream(file, true);
+        out = new DataOutputStream(new BufferedOutputStream(fileOut));
+        if (validLength == 0) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(runKey);
+            out.flush();
+            fileOut.getFD().sync();
+        }
+    }
+
+    /**
+     * Opens the journal of the given configuration, creating it if no previous run left one.
+     *
+     * @param dir       directory of the journals, created on demand
+     * @param runConfig the configuration of the run
+     */
+    public static RunJournal open(File dir, RunConfiguration runConfig) throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) throw new IOException("Unable to create journal directory at " + dir);
+        String runKey = computeRunKey(runConfig);
+        return new RunJournal(new File(dir, runKey.substring(0, 32) + FILE_EXTENSION), runKey);
+    }
+
+    /**
+     * @return Hash identifying the configuration of a run, that determines the outcome of its games
+     */
+    static String computeRunKey(RunConfiguration runConfig) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            DataOutputStream out = new DataOutputStream(new OutputStream() {
+                @Override
+                public void write(int b) {
+                    digest.update((byte) b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    digest.update(b, off, len);
+                }
+            });
+            out.writeInt(VERSION);
+            out.writeUTF(String.valueOf(runConfig.gameMode));
+            out.writeUTF(String.valueOf(runConfig.mapName));
+            out.writeInt(runConfig.teamCount);
+            //Everything else deciding the outcome of a game, like the key of the ResultCache
+            StalemateRules stalemateRules = runConfig.stalemateRules != null ? runConfig.stalemateRules : StalemateRules.NONE;
+            out.writeInt(Simulation.ENGINE_VERSION);
+            out.writeLong(runConfig.botAllocationLimit);
+            out.writeBoolean(runConfig.isolatedBots);
+            out.writeInt(stalemateRules.getTurnsWithoutAction());
+            out.writeInt(stalemateRules.getTurnsWithoutScoreChange());
+            out.writeInt(stalemateRules.getMaxTurns());
+            for (Class<? extends Player> player : runConfig.players) {
+                out.writeUTF(player.getName());
+                //Changing a bot invalidates the journal, classes without accessible bytecode are identified by name only
+                out.write(PlayerDigests.digest(player));
+            }
+            out.flush();
+            StringBuilder key = new StringBuilder();
+            for (byte b : digest.digest()) key.append(String.format("%02x", b));
+            return key.toString();
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new RuntimeException("Unable to compute the key of the run", e);
+        }
+    }
+
+    /**
+     * Reads all valid records.
+     *
+     * @return Length of the valid part of the file
+     */
+    private long readRecords(String runKey) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            long position;
+            try {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION)
+                    throw new IOException("Unknown journal format in " + file);
+                String key = in.readUTF();
+                if (!key.equals(runKey)) throw new IOException("Journal " + file + " belongs to a different run");
+                //Magic, version and the length prefixed key
+                position = 4 + 4 + 2 + key.getBytes(StandardCharsets.UTF_8).length;
+            } catch (EOFException e) {
+                //Header has not been written completely
+                return 0;
+            }
+            while (true) {
+                try {
+                    int length = in.readInt();
+                    if (length <= 0 || length > 1 << 16) return position;
+                    byte[] payload = new byte[length];
+                    in.readFully(payload);
+                    crc.reset();
+                    crc.update(payload);
+                    if (in.readLong() != crc.getValue()) return position;
+                    parseRecord(payload);
+                    position += 4 + length + 8;
+                } catch (EOFException e) {
+                    return position;
+                }
+            }
+        }
+    }
+
+    private void parseRecord(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        int teamCount = in.readUnsignedShort();
+        List<Integer> matchUp = new ArrayList<>(teamCount);
+        for (int i = 0; i < teamCount; i++) {
+            matchUp.add(in.readInt());
+        }
+        float[] scores = new float[in.readUnsignedShort()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = in.readFloat();
+        }
+        completedMatchUps.put(matchUp, scores);
+    }
+
+    /**
+     * Hands over the matchups read when the journal has been opened. The journal does not keep them, so further calls
+     * return an empty map.
+     *
+     * @return The matchups, given as player indices in seating order, completed by previous runs, and their scores
+     */
+    public synchronized Map<List<Integer>, float[]> takeCompletedMatchUps() {
+        Map<List<Integer>, float[]> matchUps = completedMatchUps;
+        completedMatchUps = new HashMap<>();
+        return matchUps;
+    }
+
+    /**
+     * Appends a completed matchup. Returns after the record has been forced to disk.
+     *
+     * @param matchUp the player indices in seating order
+     * @param scores  the scores of the game in seating order
+     */
+    public void append(Integer[] matchUp, float[] scores) throws IOException {
+        long sequence;
+        synchronized (this) {
+            if (closed) throw new IOException("Journal " + file + " has already been closed");
+            writeRecord(matchUp, scores);
+            sequence = ++appended;
+        }
+        awaitSync(sequence);
+    }
+
+    private void writeRecord(Integer[] matchUp, float[] scores) throws IOException {
+        recordBuffer.reset();
+        record.writeShort(matchUp.length);
+        for (Integer index : matchUp) {
+            record.writeInt(index);
+        }
+        record.writeShort(scores.length);
+        for (float score : scores) {
+            record.writeFloat(score);
+        }
+        crc.reset();
+        crc.update(recordBuffer.toByteArray());
+        out.writeInt(recordBuffer.size());
+        recordBuffer.writeTo(out);
+        out.writeLong(crc.getValue());
+    }
+
+    /**
+     * Waits until the record with the given sequence number has been forced to disk. If no sync is in progress, the
+     * calling thread syncs every record written so far, outside of the monitor, so others can append meanwhile.
+     */
+    private void awaitSync(long sequence) throws IOException {
+        long target;
+        synchronized (this) {
+            while (synced < sequence && syncing) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for journal " + file);
+                }
+            }
+            if (synced >= sequence) return;
+            //close() syncs before it returns, a record written before is durable then
+            if (closed) return;
+            syncing = true;
+            target = appended;
+            try {
+                out.flush();
+            } catch (IOException e) {
+                syncing = false;
+                notifyAll();
+                throw e;
+            }
+        }
+        boolean success = false;
+        try {
+            fileOut.getFD().sync();
+            success = true;
+        } finally {
+            synchronized (this) {
+                syncing = false;
+                if (success) synced = Math.max(synced, target);
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Closes and removes the journal, after the run has been completed.
+     */
+    public synchronized void delete() {
+        try {
+            close();
+        } catch (IOException e) {
+            System.err.println("Unable to close journal " + file + ": " + e);
+        }
+        if (file.exists() && !file.delete()) System.err.println("Unable to delete journal " + file);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        //A sync in progress must not find its file descriptor closed
+        boolean interrupted = false;
+        while (syncing && !closed) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        if (closed) return;
+        closed = true;
+        try {
+            out.flush();
+            fileOut.getFD().sync();
+            synced = appended;
+        } finally {
+            out.close();
+            notifyAll();
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public String toString() {
+        return "RunJournal{" +
+                "file=" + file +
+                ", appended=" + appended +
+                '}';
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.manager;
+
+/**
+ * A single unit of work for the Execution_Manager.
+ * Every change that may require the active set of games to be rebalanced is posted as an event,
+ * so the manager can react immediately instead of periodically polling for changes.
+ */
+class SchedulingEvent {
+
+    enum Type {
+        GAME_SCHEDULED,
+        GAME_COMPLETED,
+        CORE_BUDGET_CHANGED,
+        SHUTDOWN
+    }
+
+    private final Type type;
+    private final Executable game;
+    private final long createdNanos;
+
+    SchedulingEvent(Type type, Executable game) {
+        this.type = type;
+        this.game = game;
+        this.createdNanos = System.nanoTime();
+    }
+
+    SchedulingEvent(Type type) {
+        this(type, null);
+    }
+
+    Type getType() {
+        return type;
+    }
+
+    /**
+     * @return The game this event refers to, or null for events that are not bound to a single game
+     */
+    Executable getGame() {
+        return game;
+    }
+
+    /**
+     * @return Time in nanoseconds this event has been waiting to be handled
+     */
+    long getLatencyNanos() {
+        return System.nanoTime() - createdNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "SchedulingEvent{" +
+                "type=" + type +
+                ", game=" + game +
+                '}';
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.manager;
+
+import java.util.List;
+
+/**
+ * Decides in which order the {@link Manager} starts scheduled games and resumes paused ones.
+ * All calls are made by the Manager while it holds its scheduling lock, implementations therefore don't need to be thread-safe.
+ */
+public interface SchedulingPolicy {
+
+    /**
+     * Picks the game that should be run next.
+     *
+     * @param candidates non-empty list of games waiting to be started or resumed
+     * @return The selected game, which has to be an element of candidates
+     */
+    Executable select(List<Executable> candidates);
+
+    /**
+     * Called right before the manager starts a game, that has been selected by this policy.
+     *
+     * @param game the game being started
+     */
+    default void onGameStarted(Executable game) {
+    }
+
+    /**
+     * Called after a game has been completed or aborted.
+     *
+     * @param game the game that is no longer running
+     */
+    default void onGameCompleted(Executable game) {
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.manager;
+
+/**
+ * Best-of-N series between two players of a {@link TournamentRun} bracket.
+ * <p>
+ * A series ends, as soon as one player has won the majority of its length, so a game is only scheduled while it can
+ * still change the outcome. A series played to its end without majority, e.g. of drawn games, is decided by the
+ * difference of the total scores.
+ * <p>
+ * Not thread safe.
+ */
+final class Series {
+
+    private final int length;
+    private final int winsRequired;
+    private int wins1 = 0;
+    private int wins2 = 0;
+    private float scoreDifference = 0;
+    private int scheduled = 0;
+    private int completed = 0;
+    private boolean decided = false;
+
+    /**
+     * @param length maximal number of games
+     */
+    Series(int length) {
+        if (length <= 0) throw new IllegalArgumentException("A series needs at least one game: " + length);
+        this.length = length;
+        this.winsRequired = length / 2 + 1;
+    }
+
+    /**
+     * Counts another game as scheduled, if the games in progress cannot decide the series yet, even if the leading
+     * player wins all of them.
+     *
+     * @return True, if a game has to be scheduled
+     */
+    boolean scheduleNext() {
+        if (decided || scheduled >= length) return false;
+        if (scheduled - completed >= winsRequired - Math.max(wins1, wins2)) return false;
+        scheduled++;
+        return true;
+    }
+
+    /**
+     * @param gameScores scores of a completed game, of the first player first
+     * @return True, if the series is decided by this game
+     */
+    boolean record(float[] gameScores) {
+        completed++;
+        if (gameScores[0] > gameScores[1]) wins1++;
+        else if (gameScores[1] > gameScores[0]) wins2++;
+        scoreDifference += gameScores[0] - gameScores[1];
+        if (Math.max(wins1, wins2) < winsRequired && completed < length) return false;
+        decided = true;
+        return true;
+    }
+
+    boolean isDecided() {
+        return decided;
+    }
+
+    /**
+     * @return Positive, if the first player has won the series, negative if the second has, 0 if undecided or neither
+     * wins nor scores separate the players
+     */
+    int getWinner() {
+        if (!decided) return 0;
+        return wins1 != wins2 ? wins1 - wins2 : (int) Math.signum(scoreDifference);
+    }
+
+    int getWins1() {
+        return wins1;
+    }
+
+    int getWins2() {
+        return wins2;
+    }
+
+    int getScheduled() {
+        return scheduled;
+    }
+
+    int getCompleted() {
+        return completed;
+    }
+
+    int getLength() {
+        return length;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.manager;
+
+import com.example.simulation.GameState;
+import com.example.simulation.StalemateRules;
+
+import java.io.*;
+import java.net.Socket;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point of a worker JVM started by a {@link ShardedMultiGameRun}.
+ * <p>
+ * The worker connects to the coordinator, receives the configuration and its shard of matchups, runs them on its own
+ * {@link Manager} and streams the scores of every completed game back. The coordinator only accepts connections on
+ * the loopback address, workers run on the same host and load the bots from the same working directory.
+ * <p>
+ * Protocol, all values written by {@link DataOutputStream}:
+ * <pre>
+ * worker -> coordinator: shardId
+ * coordinator -> worker: reservedProcessors, gameMode, mapName, teamCount, replay, virtualThreads, isolatedBots,
+ *                        botAllocationLimit, turnsWithoutAction, turnsWithoutScoreChange, maxTurns,
+ *                        playerCount, playerClassName*, gameCount, (gameIndex, playerIndex*teamCount)*
+ * worker -> coordinator: (gameIndex, scoreCount, score*)*, END_OF_SHARD
+ * </pre>
+ * <p>
+ * Games, that have been aborted, are left out of the reported scores, the coordinator hands them to a new worker.
+ * Usage: ShardWorker host port shardId
+ */
+public final class ShardWorker {
+
+    static final int END_OF_SHARD = -1;
+    private static final long ABORT_CHECK_INTERVAL = 1000;
+
+    private static ClassLoader botLoader;
+
+    private ShardWorker() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            System.err.println("Usage: ShardWorker host port shardId");
+            System.exit(2);
+        }
+        int exitCode = 0;
+        try (Socket socket = new Socket(args[0], Integer.parseInt(args[1]))) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeInt(Integer.parseInt(args[2]));
+            out.flush();
+            runShard(in, out);
+        } catch (IOException | ClassNotFoundException | InterruptedException e) {
+            System.err.println("Shard worker failed: " + e);
+            e.printStackTrace();
+            exitCode = 1;
+        } finally {
+            Manager.getManager().dispose();
+        }
+        System.exit(exitCode);
+    }
+
+    private static void runShard(DataInputStream in, DataOutputStream out) throws IOException, ClassNotFoundException, InterruptedException {
+        Manager.setSystemReservedProcessorCount(in.readInt());
+        GameState.GameMode gameMode = GameState.GameMode.values()[in.readInt()];
+        String mapName = in.readUTF();
+        int teamCount = in.readInt();
+        boolean replay = in.readBoolean();
+        boolean virtualThreads = in.readBoolean();
+        boolean isolatedBots = in.readBoolean();
+        long botAllocationLimit = in.readLong();
+        StalemateRules stalemateRules = new StalemateRules(in.readInt(), in.readInt(), in.readInt());
+        int playerCount = in.readInt();
+        List<Class<? extends Player>> players = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            players.add(loadPlayerClass(in.readUTF()));
+        }
+
+        int gameCount = in.readInt();
+        if (isolatedBots) Manager.getManager().getBotProcessPool().prewarm();
+        CountDownLatch remaining = new CountDownLatch(gameCount);
+        Set<Executable> ended = ConcurrentHashMap.newKeySet();
+        List<Game> games = new ArrayList<>(gameCount);
+        Manager manager = Manager.getManager();
+        for (int i = 0; i < gameCount; i++) {
+            int gameIndex = in.readInt();
+            GameConfig config = new GameConfig();
+            config.gameMode = gameMode;
+            config.mapName = mapName;
+            config.teamCount = teamCount;
+            config.replay = replay;
+            config.virtualThreads = virtualThreads;
+            config.isolatedBots = isolatedBots;
+            config.botAllocationLimit = botAllocationLimit;
+            config.stalemateRules = stalemateRules;
+            config.players = new ArrayList<>(teamCount);
+            for (int j = 0; j < teamCount; j++) {
+                config.players.add(players.get(in.readInt()));
+            }
+            //Same seed as the game would have in a ParallelMultiGameRun
+            config.seed = PlayerDigests.matchUpSeed(mapName, config.players);
+            Game game = new Game(config);
+            game.addCompletionListener(exec -> {
+                try {
+                    sendScores(out, gameIndex, ((Game) exec).getScores());
+                } catch (IOException e) {
+                    System.err.println("Lost connection to the coordinator: " + e);
+                    System.exit(1);
+                }
+                if (ended.add(exec)) remaining.countDown();
+            });
+            games.add(game);
+            manager.schedule(game);
+        }
+        //Aborted games, e.g. crashed on start, do not notify their completion listeners
+        while (!remaining.await(ABORT_CHECK_INTERVAL, TimeUnit.MILLISECONDS)) {
+            for (Iterator<Game> iterator = games.iterator(); iterator.hasNext(); ) {
+                Game game = iterator.next();
+                if (game.getStatus() == Executable.Status.COMPLETED) {
+                    iterator.remove();
+                } else if (game.getStatus() == Executable.Status.ABORTED) {
+                    iterator.remove();
+                    System.err.println("Game " + game + " has been aborted");
+                    if (ended.add(game)) remaining.countDown();
+                }
+            }
+        }
+        synchronized (out) {
+            out.writeInt(END_OF_SHARD);
+            out.flush();
+        }
+    }
+
+    private static void sendScores(DataOutputStream out, int gameIndex, float[] scores) throws IOException {
+        synchronized (out) {
+            out.writeInt(gameIndex);
+            out.writeInt(scores.length);
+            for (float score : scores) {
+                out.writeFloat(score);
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Resolves a player class by its binary name. Bots are loaded from the working directory, like {@link Manager#getPossiblePlayers()}.
+     */
+    @SuppressWarnings("unchecked")
+    static synchronized Class<? extends Player> loadPlayerClass(String className) throws ClassNotFoundException, IOException {
+        Class<?> playerClass;
+        try {
+            playerClass = Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            if (botLoader == null) botLoader = new URLClassLoader(new URL[]{new File(".").toURI().toURL()});
+            playerClass = botLoader.loadClass(className);
+        }
+        if (!Player.class.isAssignableFrom(playerClass))
+            throw new ClassNotFoundException(className + " is not a Player");
+        return (Class<? extends Player>) playerClass;
+    }
+}
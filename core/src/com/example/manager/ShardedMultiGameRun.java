@@ -0,0 +1,407 @@
+package com.example.manager;
+
+import com.example.simulation.SeatSymmetry;
+import com.example.simulation.StalemateRules;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Plays all matchups of a {@link ParallelMultiGameRun} in separate worker JVMs.
+ * <p>
+ * The matchups are dealt round-robin into one shard per worker. Every worker runs its shard with its own heap and
+ * {@link Manager} (see {@link ShardWorker}) and reports the scores back over a loopback socket, where they are merged
+ * into the scores of this run. A misbehaving bot therefore only affects the games of its own worker: if a worker dies,
+ * the games of its shard, that have not been completed yet, are handed to a new worker. If that worker dies as well,
+ * the games are retried one at a time, each in a worker of its own. A game, that even then kills its worker, is not
+ * scored, the run ends with the scores of the played games and keeps its journal.
+ */
+public class ShardedMultiGameRun extends Run {
+
+    private static final int MAX_SHARD_RESTARTS = 1;
+    private static final int ACCEPT_TIMEOUT = 60000;
+
+    private final RunConfiguration runConfig;
+    private final List<Integer[]> matchUps = new ArrayList<>();
+    private static final int PENDING = 0;
+    private static final int COMPLETED = 1;
+    private static final int FAILED = 2;
+
+    //Workers report games without a lock, a game is counted by whoever moves it out of PENDING first
+    private final AtomicIntegerArray completedGames;
+    private final AtomicInteger failed = new AtomicInteger(0);
+    private final AtomicInteger unresolved = new AtomicInteger(0);
+    private final float[] scores;
+    private final DoubleAdder[] scoreSums;
+    private final AtomicInteger completed = new AtomicInteger(0);
+    private final int gameCount;
+    private final int classSize;
+    private final int reservedProcessorsPerWorker;
+
+    private final Map<Integer, Shard> shards = new HashMap<>();
+    private final List<Process> workers = new ArrayList<>();
+    private int nextShardId = 0;
+    private final ServerSocket serverSocket;
+    private volatile boolean disposed = false;
+    private RunJournal journal = null;
+    //Games of repeatedly failed shards, played one at a time
+    private final Deque<Integer> isolatedGames = new ArrayDeque<>();
+    private boolean isolating = false;
+
+    private static class Shard {
+        private final int id;
+        private final List<Integer> gameIndices;
+        private final int attempt;
+        //Plays a single game of a shard, that failed repeatedly
+        private final boolean isolated;
+        private boolean connected = false;
+
+        private Shard(int id, List<Integer> gameIndices, int attempt, boolean isolated) {
+            this.id = id;
+            this.gameIndices = gameIndices;
+            this.attempt = attempt;
+            this.isolated = isolated;
+        }
+    }
+
+    protected ShardedMultiGameRun(Manager manager, RunConfiguration runConfig) {
+        super(manager, runConfig);
+        this.runConfig = runConfig;
+        scores = new float[runConfig.players.size()];
+        scoreSums = new DoubleAdder[scores.length];
+        for (int i = 0; i < scoreSums.length; i++) {
+            scoreSums[i] = new DoubleAdder();
+        }
+        MatchUps allMatchUps = new MatchUps(runConfig.players.size(), runConfig.teamCount, SeatSymmetry.ofMap(runConfig.mapName, runConfig.teamCount));
+        while (allMatchUps.hasNext()) {
+            matchUps.add(allMatchUps.next().toArray(new Integer[0]));
+        }
+        classSize = allMatchUps.getClassSize();
+        gameCount = matchUps.size();
+        completedGames = new AtomicIntegerArray(gameCount);
+        List<Integer> pendingGames = new ArrayList<>();
+        Map<List<Integer>, float[]> journaledMatchUps = Collections.emptyMap();
+        if (runConfig.journal) {
+            try {
+                journal = RunJournal.open(ParallelMultiGameRun.JOURNAL_DIR, runConfig);
+                journaledMatchUps = journal.takeCompletedMatchUps();
+            } catch (IOException e) {
+                System.err.println("Unable to open run journal, progress will not be saved: " + e);
+            }
+        }
+        for (int i = 0; i < gameCount; i++) {
+            float[] journaledScores = journaledMatchUps.get(Arrays.asList(matchUps.get(i)));
+            if (journaledScores == null) {
+                pendingGames.add(i);
+                continue;
+            }
+            completedGames.set(i, COMPLETED);
+            completed.incrementAndGet();
+            for (int j = 0; j < journaledScores.length; j++) {
+                scoreSums[matchUps.get(i)[j]].add(journaledScores[j] * (double) classSize);
+            }
+        }
+
+        unresolved.set(pendingGames.size());
+        int workerCount = Math.max(1, Math.min(runConfig.workerProcesses, pendingGames.size()));
+        //Every worker gets an equal share of the processors, the remaining ones are reserved for its Manager
+        int processors = (int) ConcurrencyController.getAvailableProcessors();
+        int share = Math.max(Executable.REQUIRED_THREAD_COUNT, (processors - Manager.getSystemReservedProcessorCount()) / workerCount);
+        reservedProcessorsPerWorker = Math.max(0, processors - share);
+
+        System.out.printf("Running Multigame of size %d on %d worker processes\n", pendingGames.size(), workerCount);
+        if (completed.get() > 0)
+            System.out.printf("Resuming from journal %s, %d of %d games have already been completed\n", journal.getFile(), completed.get(), gameCount);
+        if (pendingGames.isEmpty()) {
+            serverSocket = null;
+            onRunCompletion();
+            return;
+        }
+        try {
+            serverSocket = new ServerSocket(0, workerCount, InetAddress.getLoopbackAddress());
+            serverSocket.setSoTimeout(ACCEPT_TIMEOUT);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to open the coordinator socket", e);
+        }
+        Thread acceptor = new Thread(this::acceptWorkers);
+        acceptor.setName("Shard_Coordinator");
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        List<List<Integer>> shardGames = new ArrayList<>();
+        for (int i = 0; i < workerCount; i++) shardGames.add(new ArrayList<>());
+        for (int i = 0; i < pendingGames.size(); i++) shardGames.get(i % workerCount).add(pendingGames.get(i));
+        for (List<Integer> games : shardGames) {
+            launchShard(games, 0, false);
+        }
+    }
+
+    private void launchShard(List<Integer> gameIndices, int attempt, boolean isolated) {
+        Shard shard;
+        synchronized (shards) {
+            if (disposed) return;
+            shard = new Shard(nextShardId++, gameIndices, attempt, isolated);
+            shards.put(shard.id, shard);
+        }
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                ShardWorker.class.getName(), serverSocket.getInetAddress().getHostAddress(),
+                Integer.toString(serverSocket.getLocalPort()), Integer.toString(shard.id));
+        builder.inheritIO();
+        try {
+            Process process = builder.start();
+            synchronized (shards) {
+                workers.add(process);
+            }
+            //Workers crashing before they connected are not noticed by any handler
+            process.onExit().thenRun(() -> {
+                synchronized (shards) {
+                    if (shard.connected || shards.remove(shard.id) == null) return;
+                }
+                onShardEnded(shard);
+            });
+        } catch (IOException e) {
+            System.err.println("Unable to start worker process: " + e);
+            onShardEnded(shard);
+        }
+    }
+
+    private void acceptWorkers() {
+        while (!disposed && !isCompleted()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread handler = new Thread(() -> handleWorker(socket));
+                handler.setName("Shard_Handler");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (SocketTimeoutException e) {
+                synchronized (shards) {
+                    if (!shards.isEmpty())
+                        System.err.printf("Waiting for %d worker processes to connect\n", shards.size());
+                }
+            } catch (SocketException e) {
+                //Socket has been closed on completion
+                break;
+            } catch (IOException e) {
+                System.err.println("Failed to accept worker connection: " + e);
+            }
+        }
+    }
+
+    private void handleWorker(Socket socket) {
+        Shard shard = null;
+        try (socket) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            int shardId = in.readInt();
+            synchronized (shards) {
+                shard = shards.get(shardId);
+                if (shard != null) shard.connected = true;
+            }
+            if (shard == null) {
+                System.err.println("Unknown shard " + shardId + " connected to coordinator");
+                return;
+            }
+            sendShard(out, shard);
+            int gameIndex;
+            while ((gameIndex = in.readInt()) != ShardWorker.END_OF_SHARD) {
+                float[] gameScores = new float[in.readInt()];
+                for (int i = 0; i < gameScores.length; i++) {
+                    gameScores[i] = in.readFloat();
+                }
+                if (journal != null) {
+                    try {
+                        journal.append(matchUps.get(gameIndex), gameScores);
+                    } catch (IOException e) {
+                        System.err.println("Unable to journal completed game: " + e);
+                    }
+                }
+                onGameCompletion(gameIndex, gameScores);
+            }
+        } catch (IOException e) {
+            if (!disposed && !isCompleted())
+                System.err.println("Lost connection to worker: " + e);
+        }
+        if (shard != null) {
+            synchronized (shards) {
+                if (shards.remove(shard.id) == null) return;
+            }
+            onShardEnded(shard);
+        }
+    }
+
+    private void sendShard(DataOutputStream out, Shard shard) throws IOException {
+        out.writeInt(reservedProcessorsPerWorker);
+        out.writeInt(runConfig.gameMode.ordinal());
+        out.writeUTF(runConfig.mapName);
+        out.writeInt(runConfig.teamCount);
+        out.writeBoolean(runConfig.replay);
+        out.writeBoolean(runConfig.virtualThreads);
+        out.writeBoolean(runConfig.isolatedBots);
+        out.writeLong(runConfig.botAllocationLimit);
+        //Like GameConfig, runs not created by Run.getRun play without stalemate rules
+        StalemateRules stalemateRules = runConfig.stalemateRules != null ? runConfig.stalemateRules : StalemateRules.NONE;
+        out.writeInt(stalemateRules.getTurnsWithoutAction());
+        out.writeInt(stalemateRules.getTurnsWithoutScoreChange());
+        out.writeInt(stalemateRules.getMaxTurns());
+        out.writeInt(runConfig.players.size());
+        for (Class<? extends Player> player : runConfig.players) {
+            out.writeUTF(player.getName());
+        }
+        out.writeInt(shard.gameIndices.size());
+        for (int gameIndex : shard.gameIndices) {
+            out.writeInt(gameIndex);
+            for (Integer playerIndex : matchUps.get(gameIndex)) {
+                out.writeInt(playerIndex);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Hands the games of a finished or failed shard, that have not been completed, to a new worker. Games of a shard,
+     * that failed repeatedly, are retried one at a time, so a single game killing its worker does not take the other
+     * games of the shard with it.
+     */
+    private void onShardEnded(Shard shard) {
+        List<Integer> remaining = new ArrayList<>();
+        for (int gameIndex : shard.gameIndices) {
+            if (completedGames.get(gameIndex) == PENDING) remaining.add(gameIndex);
+        }
+        if (disposed) return;
+        if (shard.isolated) {
+            for (int gameIndex : remaining) onGameFailed(gameIndex);
+            launchNextIsolatedGame();
+            return;
+        }
+        if (remaining.isEmpty()) return;
+        if (shard.attempt < MAX_SHARD_RESTARTS) {
+            System.err.printf("Worker of shard %d failed, restarting %d games\n", shard.id, remaining.size());
+            launchShard(remaining, shard.attempt + 1, false);
+            return;
+        }
+        System.err.printf("Worker of shard %d failed repeatedly, retrying its %d games one at a time\n", shard.id, remaining.size());
+        synchronized (shards) {
+            isolatedGames.addAll(remaining);
+            if (isolating) return;
+            isolating = true;
+        }
+        launchNextIsolatedGame();
+    }
+
+    private void launchNextIsolatedGame() {
+        Integer gameIndex;
+        synchronized (shards) {
+            gameIndex = isolatedGames.poll();
+            if (gameIndex == null) {
+                isolating = false;
+                return;
+            }
+        }
+        launchShard(Collections.singletonList(gameIndex), MAX_SHARD_RESTARTS, true);
+    }
+
+    /**
+     * Gives up a game, that kills every worker playing it. It is left out of the scores instead of being scored as played.
+     */
+    private void onGameFailed(int gameIndex) {
+        if (!completedGames.compareAndSet(gameIndex, PENDING, FAILED)) return;
+        failed.incrementAndGet();
+        StringBuilder names = new StringBuilder();
+        for (Integer player : matchUps.get(gameIndex)) {
+            if (names.length() > 0) names.append(" vs ");
+            names.append(runConfig.players.get(player).getName());
+        }
+        System.err.printf("Game %d (%s) killed its worker even when played alone, it is not scored\n", gameIndex, names);
+        if (unresolved.decrementAndGet() != 0) return;
+        closeServerSocket();
+        onRunCompletion();
+    }
+
+    private void onGameCompletion(int gameIndex, float[] gameScores) {
+        Integer[] matchup = matchUps.get(gameIndex);
+        //A restarted shard may report a game again, that its failed predecessor already reported
+        if (!completedGames.compareAndSet(gameIndex, PENDING, COMPLETED)) return;
+        for (int i = 0; i < gameScores.length && i < matchup.length; i++) {
+            scoreSums[matchup[i]].add(gameScores[i] * (double) classSize);
+        }
+        int done = completed.incrementAndGet();
+        if (((done - 1) * 100L) / gameCount < (done * 100L) / gameCount)
+            System.out.printf("ShardedMultiGameRun(%d)-Completion: %d %% \n", hashCode(), (done * 100L) / gameCount);
+        publishLeaderboard();
+        if (unresolved.decrementAndGet() != 0) return;
+        closeServerSocket();
+        onRunCompletion();
+    }
+
+    private void onRunCompletion() {
+        int played = completed.get();
+        for (int j = 0; j < scores.length && played > 0; j++) {
+            scores[j] = (float) (scoreSums[j].sum() / ((double) played * classSize));
+        }
+        if (failed.get() > 0) {
+            //The journal lets a run with fixed bots play only the missing games
+            System.err.printf("ShardedMultiGameRun(%d) is incomplete: %d of %d games could not be played, the scores only include the played games%s\n",
+                    hashCode(), failed.get(), gameCount, journal != null ? ", the journal " + journal.getFile() + " is kept" : "");
+        } else if (journal != null) {
+            journal.delete();
+        }
+        complete();
+    }
+
+    private void closeServerSocket() {
+        try {
+            if (serverSocket != null) serverSocket.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    @Override
+    public void dispose() {
+        synchronized (shards) {
+            disposed = true;
+            for (Process worker : workers) {
+                worker.destroyForcibly();
+            }
+        }
+        closeServerSocket();
+        super.dispose();
+    }
+
+    @Override
+    public float[] getScores() {
+        return scores;
+    }
+
+    /**
+     * Reads the scores without a lock. A game reported concurrently may be partially included.
+     */
+    @Override
+    public Leaderboard getLeaderboard() {
+        int done = completed.get();
+        float[] current = new float[scoreSums.length];
+        for (int j = 0; j < current.length && done > 0; j++) {
+            current[j] = (float) (scoreSums[j].sum() / ((double) done * classSize));
+        }
+        return new Leaderboard(Collections.unmodifiableList(getPlayers()), current, done, gameCount, isCompleted());
+    }
+
+    @Override
+    public String toString() {
+        return "ShardedMultiGameRun{" +
+                "super=" + super.toString() +
+                ", completed=" + completed +
+                ", gameCount=" + gameCount +
+                ", workers=" + workers.size() +
+                ", scores=" + Arrays.toString(scores) +
+                '}';
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.manager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the game with the shortest expected duration first.
+ * The expectation is learned from the games completed so far: Durations are averaged per matchup (map and player order)
+ * and per map. Games without any history use the average of all completed games,
+ * which places unknown matchups in the middle of the queue until they have been observed once.
+ */
+public class ShortestExpectedDurationPolicy implements SchedulingPolicy {
+
+    /**
+     * Weight of the latest observation in the exponentially weighted averages
+     */
+    private static final double SMOOTHING = 0.3;
+
+    private final Map<String, Double> matchupDurations = new HashMap<>();
+    private final Map<String, Double> mapDurations = new HashMap<>();
+    private double globalDuration = 0;
+    private long observations = 0;
+
+    private final Map<Executable, StartedGame> startedGames = new HashMap<>();
+
+    private static class StartedGame {
+        private final String matchup;
+        private final String map;
+        private final long startNanos = System.nanoTime();
+
+        private StartedGame(String matchup, String map) {
+            this.matchup = matchup;
+            this.map = map;
+        }
+    }
+
+    @Override
+    public Executable select(List<Executable> candidates) {
+        Executable selected = null;
+        double selectedDuration = Double.MAX_VALUE;
+        for (Executable candidate : candidates) {
+            double duration = getExpectedDuration(candidate);
+            if (duration < selectedDuration) {
+                selected = candidate;
+                selectedDuration = duration;
+            }
+        }
+        return selected;
+    }
+
+    @Override
+    public void onGameStarted(Executable game) {
+        //The config is only available until the game has been started
+        if (game.config != null)
+            startedGames.put(game, new StartedGame(getMatchupKey(game.config), game.config.mapName));
+    }
+
+    @Override
+    public void onGameCompleted(Executable game) {
+        StartedGame started = startedGames.remove(game);
+        if (started == null || game.getStatus() != Executable.Status.COMPLETED) return;
+        double duration = System.nanoTime() - started.startNanos;
+        matchupDurations.merge(started.matchup, duration, ShortestExpectedDurationPolicy::smooth);
+        if (started.map != null) mapDurations.merge(started.map, duration, ShortestExpectedDurationPolicy::smooth);
+        observations++;
+        globalDuration += (duration - globalDuration) / observations;
+    }
+
+    /**
+     * @param game a game that has not been started yet
+     * @return The expected duration of the game in nanoseconds
+     */
+    protected double getExpectedDuration(Executable game) {
+        if (game.config == null) return globalDuration;
+        Double duration = matchupDurations.get(getMatchupKey(game.config));
+        if (duration == null && game.config.mapName != null) duration = mapDurations.get(game.config.mapName);
+        return duration == null ? globalDuration : duration;
+    }
+
+    private static double smooth(double average, double observation) {
+        return average + SMOOTHING * (observation - average);
+    }
+
+    private static String getMatchupKey(GameConfig config) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(config.gameMode).append('|').append(config.mapName);
+        if (config.players != null)
+            for (Class<? extends Player> player : config.players) {
+                builder.append('|').append(player.getName());
+            }
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "ShortestExpectedDurationPolicy{" +
+                "observations=" + observations +
+                ", globalDuration=" + globalDuration +
+                '}';
+    }
+}
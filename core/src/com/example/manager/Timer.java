@@ -2,6 +2,9 @@ package com.example.manager;
 
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Misst die verbleibende Zeit des aktuellen Zuges.
+ */
 public class Timer {
 
     private final long start;
@@ -12,10 +15,17 @@ public class Timer {
         start = System.nanoTime();
     }
 
+    /**
+     * @return Verbleibende Zeit in Nanosekunden, negativ wenn die Zeit überschritten wurde
+     */
     public long getRemainingNanos(){
         return duration + start - System.nanoTime();
     }
 
+    /**
+     * @param unit Einheit des Rückgabewertes
+     * @return Verbleibende Zeit in der angegebenen Einheit
+     */
     public long getRemainingTime(TimeUnit unit){
         return unit.convert(getRemainingNanos(), TimeUnit.NANOSECONDS);
     }
@@ -0,0 +1,199 @@
+package com.example.manager;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashed timer wheel executing deadline callbacks on a single thread.
+ * <p>
+ * Scheduling and cancelling are O(1) and lock-free for the caller. The worker advances the wheel once per tick and
+ * runs every expired task, so deadlines fire at most one tick late. Tasks are executed on the worker thread and have to
+ * return quickly, a blocking task delays all other deadlines.
+ */
+public class TimerWheel {
+
+    private static final long DEFAULT_TICK_MILLIS = 10;
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private static TimerWheel shared;
+
+    /**
+     * Handle of a scheduled task
+     */
+    public static class Timeout {
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private long remainingRounds;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Prevents the task from being executed.
+         *
+         * @return False, if the task has already been executed or cancelled
+         */
+        public boolean cancel() {
+            return state.compareAndSet(PENDING, CANCELLED);
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(PENDING, EXPIRED)) return;
+            try {
+                task.run();
+            } catch (Throwable e) {
+                System.err.println("Timer task failed with exception: " + e);
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private final long tickNanos;
+    private final List<Queue<Timeout>> wheel;
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final String name;
+    private final Object lifecycleLock = new Object();
+    private Thread worker;
+    private volatile boolean stopped = false;
+    private long startNanos;
+    private long tick = 0;
+
+    /**
+     * @param tickDuration duration of a single tick, deadlines are rounded up to full ticks
+     * @param unit         unit of tickDuration
+     * @param wheelSize    number of slots, deadlines further away than wheelSize ticks take additional rounds
+     * @param name         name of the worker thread
+     */
+    public TimerWheel(long tickDuration, TimeUnit unit, int wheelSize, String name) {
+        if (tickDuration <= 0 || wheelSize <= 0)
+            throw new IllegalArgumentException("Tick duration and wheel size of a TimerWheel have to be positive");
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.name = name;
+        wheel = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            wheel.add(new LinkedList<>());
+        }
+    }
+
+    /**
+     * @return The process-wide timer used to enforce turn deadlines
+     */
+    public static synchronized TimerWheel getShared() {
+        if (shared == null)
+            shared = new TimerWheel(DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE, "Turn_Watchdog");
+        return shared;
+    }
+
+    /**
+     * Executes task once the delay has passed, unless the returned handle is cancelled before.
+     *
+     * @param task  the task to execute on the worker thread
+     * @param delay delay until execution
+     * @param unit  unit of delay
+     * @return Handle to cancel the execution
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        start();
+        Timeout timeout = new Timeout(task, System.nanoTime() + unit.toNanos(delay));
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    private void start() {
+        synchronized (lifecycleLock) {
+            if (worker != null) return;
+            if (stopped) throw new IllegalStateException("TimerWheel " + name + " has already been stopped");
+            startNanos = System.nanoTime();
+            worker = new Thread(this::run);
+            worker.setName(name);
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    /**
+     * Stops the worker thread. Pending tasks are not executed.
+     */
+    public void stop() {
+        synchronized (lifecycleLock) {
+            stopped = true;
+            if (worker != null) worker.interrupt();
+        }
+    }
+
+    private void run() {
+        while (!stopped) {
+            long tickDeadline = startNanos + (tick + 1) * tickNanos;
+            long sleepNanos = tickDeadline - System.nanoTime();
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (stopped) break;
+                    continue;
+                }
+            }
+            transferPendingTimeouts();
+            expireTimeouts(wheel.get((int) (tick % wheel.size())), System.nanoTime());
+            tick++;
+        }
+    }
+
+    private void transferPendingTimeouts() {
+        Timeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (timeout.isCancelled()) continue;
+            long ticks = Math.max(0, (timeout.deadline - startNanos + tickNanos - 1) / tickNanos - 1);
+            //Deadlines in the past are expired with the current tick
+            ticks = Math.max(ticks, tick);
+            timeout.remainingRounds = (ticks - tick) / wheel.size();
+            wheel.get((int) (ticks % wheel.size())).add(timeout);
+        }
+    }
+
+    private void expireTimeouts(Queue<Timeout> bucket, long now) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.isCancelled()) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0 && timeout.deadline <= now) {
+                iterator.remove();
+                timeout.expire();
+            } else if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TimerWheel{" +
+                "name='" + name + '\'' +
+                ", tickNanos=" + tickNanos +
+                ", wheelSize=" + wheel.size() +
+                ", tick=" + tick +
+                '}';
+    }
+}
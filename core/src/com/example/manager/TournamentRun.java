@@ -5,6 +5,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 public class TournamentRun extends Run {
 
+    static final List<String> DEFAULT_MAP_POOL = List.of("lukeMap", "Gadsrena", "mondlandschaft");
+
     AtomicInteger completed = new AtomicInteger(0);
 
     private class BracketNode {
@@ -14,19 +16,16 @@ public class TournamentRun extends Run {
 
         private final List<CompletionHandler<BracketNode>> handlers = new ArrayList<>();
 
-
-        Game game1;
-        Game game2;
-        Game game3;
-
         protected int p1 = -1;
         protected int p2 = -1;
 
+        /**
+         * Positive, if p1 has won the series, negative if p2 has won it
+         */
         int winner = 0;
+        private final Series series = new Series(seriesLength);
         private final GameConfig config;
 
-        private int completed = 0;
-
         private BracketNode(GameConfig config) {
             this.config = config;
         }
@@ -81,36 +80,43 @@ public class TournamentRun extends Run {
         }
 
         private void startGames() {
-            config.players = new ArrayList<>();
-            config.players.add(players.get(p1));
-            config.players.add(players.get(p2));
-            config.mapName = "lukeMap"; //ToDo make dynamic
-            game1 = new Game(config);
-            game1.addCompletionListener(this::onGameComplete);
-            config.mapName = "Gadsrena"; //ToDo make dynamic
-            game2 = new Game(config);
-            game2.addCompletionListener(this::onGameComplete);
-            config.mapName = "mondlandschaft"; //ToDo make dynamic
-            game3 = new Game(config);
-            game3.addCompletionListener(this::onGameComplete);
-            manager.schedule(game1);
-            manager.schedule(game2);
-            manager.schedule(game3);
+            synchronized (handlerLock) {
+                scheduleGames();
+            }
+        }
+
+        /**
+         * Schedules as many games of the series, as the leading player still has to win. A game, that cannot change
+         * the outcome of the series, is never scheduled, the manager starts games of other brackets instead.
+         */
+        private void scheduleGames() {
+            while (series.scheduleNext()) {
+                GameConfig cur = config.copy();
+                cur.players = new ArrayList<>();
+                cur.players.add(players.get(p1));
+                cur.players.add(players.get(p2));
+                cur.mapName = mapPool.get((series.getScheduled() - 1) % mapPool.size());
+                Game game = new Game(cur);
+                game.addCompletionListener(this::onGameComplete);
+                addGame(game);
+            }
         }
 
         void onGameComplete(Executable exec) {
             Game game = (Game) exec;
             System.out.println("Completed: " + TournamentRun.this.completed.incrementAndGet());
+            if (!config.gui) removeGame(game);
             synchronized (handlerLock) {
-                completed++;
-                winner = (int) (game.getScores()[0] - game.getScores()[1]);
-                if (completed >= 3) {
-                    System.out.printf("|%s-%s|%n",players.get(p1).getName(),players.get(p2).getName());
-                    if (winner == 0)
-                        System.err.printf("Warning no Winner in Best of 3 %s vs %s", config.players.get(0).getName(), config.players.get(1).getName());
-                    for (CompletionHandler<BracketNode> handler : handlers) {
-                        handler.onComplete(this);
-                    }
+                if (!series.record(game.getScores())) {
+                    scheduleGames();
+                    return;
+                }
+                winner = series.getWinner();
+                System.out.printf("|%s-%s|%n",players.get(p1).getName(),players.get(p2).getName());
+                if (winner == 0)
+                    System.err.printf("Warning no Winner in Best of %d %s vs %s%n", seriesLength, players.get(p1).getName(), players.get(p2).getName());
+                for (CompletionHandler<BracketNode> handler : handlers) {
+                    handler.onComplete(this);
                 }
             }
         }
@@ -118,7 +124,7 @@ public class TournamentRun extends Run {
         void addCompletionListener(CompletionHandler<BracketNode> handler) {
             synchronized (handlerLock) {
                 handlers.add(handler);
-                if (completed >= 3) handler.onComplete(this);
+                if (series.isDecided()) handler.onComplete(this);
             }
         }
 
@@ -143,6 +149,8 @@ public class TournamentRun extends Run {
 
 
     private final ArrayList<Class<? extends Player>> players;
+    private final List<String> mapPool;
+    private final int seriesLength;
 
     int completedGames = 0;
 
@@ -160,6 +168,8 @@ public class TournamentRun extends Run {
             System.err.printf("Warning: Only 1v1 is supported in bracket tournaments. Ignoring config.teamCount = %d%n", runConfig.teamCount);
         runConfig.teamCount = 2;
         players = runConfig.players;
+        mapPool = runConfig.mapPool == null || runConfig.mapPool.isEmpty() ? DEFAULT_MAP_POOL : new ArrayList<>(runConfig.mapPool);
+        seriesLength = runConfig.seriesLength;
 
         int playerCount = players.size();
         scores = new float[playerCount];
@@ -333,9 +343,7 @@ public class TournamentRun extends Run {
     }
 
     private String printBracket(BracketNode node){
-        int s1 = (node.winner + 3)/2;
-        int s2 = 3-s1;
-        return String.format("|%s-%s:%d-%d|", players.get(node.p1).getName(),players.get(node.p2).getName(), s1, s2);
+        return String.format("|%s-%s:%d-%d|", players.get(node.p1).getName(),players.get(node.p2).getName(), node.series.getWins1(), node.series.getWins2());
     }
 
     private void setLooserScore(BracketNode node, float score) {
@@ -0,0 +1,50 @@
+package com.example.manager.command;
+
+import com.example.simulation.GameCharacterController;
+import com.example.simulation.action.ActionLog;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Executes the commands of a batch submitted via {@link com.example.manager.Controller#submitBatch()} back-to-back.
+ * <p>
+ * Every command keeps its own ActionLog. The logs are handed to the animation and replay in the order of the commands,
+ * so their actions play one after another, like those of commands submitted one by one. Merged into one tree, the
+ * actions of later commands would become siblings of the first command's actions and play at the same time.
+ */
+public class BatchCommand extends Command {
+
+    private final List<Command> commands;
+
+    public BatchCommand(GameCharacterController controller, List<Command> commands) {
+        super(controller);
+        this.commands = commands;
+    }
+
+    public List<Command> getCommands() {
+        return commands;
+    }
+
+    @Override
+    public void run(Consumer<ActionLog> logs) {
+        if (!controller.isActive()) return;
+        for (Command cmd : commands) {
+            cmd.run(logs);
+        }
+    }
+
+    /**
+     * Executes the commands, for callers that take a single ActionLog. The logs are only available through
+     * {@link #run(Consumer)}.
+     *
+     * @return Always null
+     */
+    @Override
+    public ActionLog onExecute() {
+        for (Command cmd : commands) {
+            cmd.run();
+        }
+        return null;
+    }
+}
@@ -3,6 +3,8 @@ package com.example.manager.command;
 import com.example.simulation.GameCharacterController;
 import com.example.simulation.action.ActionLog;
 
+import java.util.function.Consumer;
+
 /**
  * Base Class
  * Every Command has to inherit from this
@@ -23,6 +25,16 @@ public abstract class Command {
         return null;
     }
 
+    /**
+     * Executes the command and hands the resulting ActionLogs to logs, in the order they have been produced.
+     *
+     * @param logs receives every ActionLog of the command
+     */
+    public void run(Consumer<ActionLog> logs) {
+        ActionLog log = run();
+        if (log != null) logs.accept(log);
+    }
+
     public boolean isEndTurn() {
         return controller.isActive() && isEndTurn;
     }
@@ -0,0 +1,65 @@
+package com.example.manager.command;
+
+import com.example.simulation.GameCharacterController;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary encoding of the commands issued by bots running in a separate process.
+ * <p>
+ * Every command, that is available via the {@link com.example.manager.Controller}, needs an opcode here.
+ * Administrative commands like the {@link EndTurnCommand} are never transferred.
+ */
+public final class CommandCodec {
+
+    private static final byte FOO = 1;
+    private static final byte BATCH = 2;
+
+    private CommandCodec() {
+    }
+
+    public static void write(Command cmd, DataOutput out) throws IOException {
+        if (cmd instanceof FooCommand) {
+            out.writeByte(FOO);
+            out.writeInt(((FooCommand) cmd).getI());
+        } else if (cmd instanceof BatchCommand) {
+            List<Command> commands = ((BatchCommand) cmd).getCommands();
+            out.writeByte(BATCH);
+            out.writeShort(commands.size());
+            for (Command nested : commands) {
+                if (nested instanceof BatchCommand) throw new IllegalArgumentException("Batches can not be nested");
+                write(nested, out);
+            }
+        } else {
+            throw new IllegalArgumentException("Command " + cmd.getClass().getName() + " can not be encoded");
+        }
+    }
+
+    /**
+     * @param in         the encoded command
+     * @param controller the controller, that executes the decoded command
+     * @return The decoded command
+     */
+    public static Command read(DataInput in, GameCharacterController controller) throws IOException {
+        byte opcode = in.readByte();
+        switch (opcode) {
+            case FOO:
+                return new FooCommand(controller, in.readInt());
+            case BATCH:
+                int size = in.readUnsignedShort();
+                List<Command> commands = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    Command nested = read(in, controller);
+                    if (nested instanceof BatchCommand) throw new IOException("Batches can not be nested");
+                    commands.add(nested);
+                }
+                return new BatchCommand(controller, commands);
+            default:
+                throw new IOException("Unknown command opcode " + opcode);
+        }
+    }
+}
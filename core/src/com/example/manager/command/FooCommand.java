@@ -15,6 +15,10 @@ public class FooCommand extends Command{
         this.i = i;
     }
 
+    public int getI() {
+        return i;
+    }
+
     @Override
     public ActionLog onExecute() {
         return controller.foo(i);
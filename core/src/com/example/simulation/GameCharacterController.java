@@ -17,6 +17,8 @@ public class GameCharacterController {
 
     /**
      * Returns the root of the ActionLog that is currently recording in the simulation instance.
+     * Actions added to it are dropped, if the simulation is not {@link Simulation#isRecording() recording}, so
+     * commands should skip creating them in this case.
      */
     private Action getRoot(){
         return state.getSim().getActionLog().getRootAction();
@@ -46,6 +48,7 @@ public class GameCharacterController {
 
     //ToDo: add more calls to complete your API
     //ToDo: all added calls should have respective Counterparts in manager.Controller and manager.command.[...]
+    //ToDo: calls, that change the state of the game, have to call state.getSim().registerAction() like foo, otherwise the game ends as a stalemate
     /**
      * Example command, replace with correct logic and add more commands
      *
@@ -54,6 +57,7 @@ public class GameCharacterController {
      */
     public ActionLog foo(int i) {
         //ToDo execute command
+        state.getSim().registerAction();
         return endCommand();
     }
 
@@ -24,7 +24,11 @@ public class GameState implements Serializable {
 
     private final boolean winnerTakesAll;
 
-    private final float[] scores;
+    private float[] scores;
+    //Set while scores is shared with a snapshot, the next write has to copy it
+    private transient boolean scoresShared = false;
+    //Number of score changes of the simulated state, snapshots do not track it
+    private transient int scoreChanges = 0;
 
     private int width = 0;
 
@@ -40,17 +44,45 @@ public class GameState implements Serializable {
     }
 
 
+    /**
+     * Creates an immutable snapshot, that shares all data with the original. The original copies data shared this way
+     * before its next modification, so a snapshot costs O(1) and the following turn O(changes).
+     */
     private GameState(GameState original) {
-        //ToDo this needs to deep copy all read only attributes
+        //ToDo this needs to share all further read only attributes
         gameMode = original.gameMode;
         turnTimer = original.turnTimer;
 
         winnerTakesAll = original.winnerTakesAll;
         teamCount = original.teamCount;
+        width = original.width;
+        height = original.height;
         turn = null;
         active = original.active;
         sim = null;
-        scores = Arrays.copyOf(original.scores, original.scores.length);
+        scores = original.scores;
+        scoresShared = true;
+        original.scoresShared = true;
+        board = original.board.snapshot();
+    }
+
+    /**
+     * Creates a detached snapshot, that has been decoded by {@link GameStateCodec}.
+     */
+    GameState(GameMode gameMode, String mapName, int width, int height, int teamCount, boolean active,
+              boolean winnerTakesAll, float[] scores, Timer turnTimer) {
+        this.gameMode = gameMode;
+        this.mapName = mapName;
+        this.width = width;
+        this.height = height;
+        this.teamCount = teamCount;
+        this.active = active;
+        this.winnerTakesAll = winnerTakesAll;
+        this.scores = scores;
+        this.turnTimer = turnTimer;
+        turn = null;
+        sim = null;
+        board = new SnapshotGrid<>(width, height);
     }
 
     public enum GameMode {
@@ -74,6 +106,7 @@ public class GameState implements Serializable {
     private final ArrayDeque<Integer> turn;
     private boolean active;
     private final transient Simulation sim;
+    private SnapshotGrid<Integer> board;
 
 
     /**
@@ -83,8 +116,9 @@ public class GameState implements Serializable {
      * @param mapName           name of the selected map as String
      * @param teamCount         number of teams/players
      * @param sim               the respective simulation instance
+     * @param seed              seed of all random decisions made while setting up the game
      */
-    GameState(GameMode gameMode, String mapName, int teamCount, Simulation sim) {
+    GameState(GameMode gameMode, String mapName, int teamCount, Simulation sim, long seed) {
         this.gameMode = gameMode;
         this.mapName = mapName;
         List<List<IntVector2>> spawnpoints = loadMap(gameMode == GameMode.Campaign ? "campaign/" + mapName : mapName);
@@ -97,7 +131,7 @@ public class GameState implements Serializable {
 
         this.scores = new float[teamCount];
         this.winnerTakesAll = gameMode == GameMode.Campaign || gameMode == GameMode.Tournament_Phase_2;
-        this.initTeam(spawnpoints);
+        this.initTeam(spawnpoints, seed);
     }
 
     /**
@@ -112,14 +146,14 @@ public class GameState implements Serializable {
     /**
      * Spawns players randomly distributed over the possible spawn-location, specified by the map.
      */
-    void initTeam(List<List<IntVector2>> spawnpoints) {
+    void initTeam(List<List<IntVector2>> spawnpoints, long seed) {
 
         int typeCount = spawnpoints.size();
         if (typeCount < teamCount)
             throw new RuntimeException(String.format(
                     "Requested %d Teams, but the selected map only supports %d different teams",
                     teamCount, typeCount));
-        Random rnd = new Random();
+        Random rnd = new Random(seed);
         ArrayList<int[]> weapons;
         ArrayList<int[]> health;
         if (gameMode == GameMode.Campaign) {
@@ -148,21 +182,42 @@ public class GameState implements Serializable {
     protected Action addScore(Action head, int team, float score) {
         if (!winnerTakesAll) {
 
-            scores[team] += score;
+            mutableScores()[team] += score;
         } else if (score == Simulation.SCORE_WIN[0]) {
-            scores[team] = 1;
+            mutableScores()[team] = 1;
         } else
             return head;
+        scoreChanges++;
+        //Nothing is attached to the head of a discarding log
+        if (sim != null && !sim.isRecording()) return head;
         ScoreAction scoreAction = new ScoreAction(0, team, scores[team]);
         head.addChild(scoreAction);
         return scoreAction;
     }
 
+    /**
+     * @return The scores for modification, copied first if they are shared with a snapshot
+     */
+    private float[] mutableScores() {
+        if (scoresShared) {
+            scores = Arrays.copyOf(scores, scores.length);
+            scoresShared = false;
+        }
+        return scores;
+    }
+
     //ToDo migrate to Simulation
     protected void deactivate() {
         this.active = false;
     }
 
+    /**
+     * @return Number of times a score has changed since the game has started
+     */
+    int getScoreChanges() {
+        return scoreChanges;
+    }
+
     /**
      * @return the Queue that saves the order Characters may act in
      */
@@ -186,26 +241,11 @@ public class GameState implements Serializable {
      * @param mapName Name of the map without type as String
      */
     private List<List<IntVector2>> loadMap(String mapName) {
-        JsonReader reader = new JsonReader();
-        JsonValue map;
-        try {
-            //attempt to load map from jar
-            map = reader.parse(getClass().getClassLoader().getResourceAsStream("maps/" + mapName + ".json"));
-        } catch (Exception e) {
-            map = null;
-        }
-        if (map == null) {
-            try {
-                //attempt to load map from external maps dir
-                map = reader.parse(new FileHandle(Paths.get("./maps/" + mapName + ".json").toFile()));
-            } catch (Exception e) {
-                throw new RuntimeException("Could not find or load map:" + mapName);
-            }
-        }
+        JsonValue map = readMap(mapName);
 
         width = map.get("width").asInt();
         height = map.get("height").asInt();
-        //board = new Tile[width][height];
+        board = new SnapshotGrid<>(width, height);
 
         JsonValue tileData = map.get("layers").get(0).get("data");
 
@@ -215,6 +255,7 @@ public class GameState implements Serializable {
         for (int i = 0; i < width; i++) {
             for (int j = 0; j < height; j++) {
                 int type = tileData.get(i + (height - j - 1) * width).asInt();
+                if (type != 0) board.set(i, j, type);
                 if (type > 100) {
                     //int team = type - 101; //teams starting at 0
                     if (teams.containsKey(type)) {
@@ -245,6 +286,31 @@ public class GameState implements Serializable {
 
     }
 
+    /**
+     * Parses the JSON of a map from the jar or, if it is not packaged, from the external maps directory.
+     *
+     * @param mapName Name of the map without type
+     */
+    static JsonValue readMap(String mapName) {
+        JsonReader reader = new JsonReader();
+        JsonValue map;
+        try {
+            //attempt to load map from jar
+            map = reader.parse(GameState.class.getClassLoader().getResourceAsStream("maps/" + mapName + ".json"));
+        } catch (Exception e) {
+            map = null;
+        }
+        if (map == null) {
+            try {
+                //attempt to load map from external maps dir
+                map = reader.parse(new FileHandle(Paths.get("./maps/" + mapName + ".json").toFile()));
+            } catch (Exception e) {
+                throw new RuntimeException("Could not find or load map:" + mapName);
+            }
+        }
+        return map;
+    }
+
     /**
      * @return Anzahl der Teams/Spieler
      */
@@ -255,11 +321,13 @@ public class GameState implements Serializable {
 
 
     /**
-     * @return The 2D array that saves all Tiles
+     * ToDo: store Tiles instead of the tile types of the map
+     *
+     * @return The grid that saves the tile type of every position, read-only for snapshots
      */
-//    Tile[][] getBoard() {
-//        return board;
-//    }
+    SnapshotGrid<Integer> getBoard() {
+        return board;
+    }
 
 
     /**
@@ -276,6 +344,20 @@ public class GameState implements Serializable {
         return height;
     }
 
+    /**
+     * @return name of the map, null for copies handed to players
+     */
+    String getMapName() {
+        return mapName;
+    }
+
+    /**
+     * @return whether only the winner of the game is scored
+     */
+    boolean isWinnerTakesAll() {
+        return winnerTakesAll;
+    }
+
     public Timer getTurnTimer() {
         return turnTimer;
     }
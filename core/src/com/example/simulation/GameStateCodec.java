@@ -0,0 +1,54 @@
+package com.example.simulation;
+
+import com.example.manager.Timer;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Compact binary encoding of the {@link GameState} snapshots handed to bots running in a separate process.
+ * <p>
+ * Only the information visible to bots is encoded. The turn timer is transferred as remaining time and restarted by
+ * the receiver, decoded states are detached from any {@link Simulation}.
+ */
+public final class GameStateCodec {
+
+    private GameStateCodec() {
+    }
+
+    public static void write(GameState state, DataOutput out) throws IOException {
+        out.writeByte(state.getGameMode().ordinal());
+        out.writeBoolean(state.getMapName() != null);
+        if (state.getMapName() != null) out.writeUTF(state.getMapName());
+        out.writeShort(state.getBoardSizeX());
+        out.writeShort(state.getBoardSizeY());
+        out.writeByte(state.getTeamCount());
+        out.writeBoolean(state.isActive());
+        out.writeBoolean(state.isWinnerTakesAll());
+        float[] scores = state.getScores();
+        out.writeByte(scores.length);
+        for (float score : scores) {
+            out.writeFloat(score);
+        }
+        Timer turnTimer = state.getTurnTimer();
+        out.writeLong(turnTimer == null ? -1 : Math.max(0, turnTimer.getRemainingNanos()));
+    }
+
+    public static GameState read(DataInput in) throws IOException {
+        GameState.GameMode gameMode = GameState.GameMode.values()[in.readUnsignedByte()];
+        String mapName = in.readBoolean() ? in.readUTF() : null;
+        int width = in.readUnsignedShort();
+        int height = in.readUnsignedShort();
+        int teamCount = in.readUnsignedByte();
+        boolean active = in.readBoolean();
+        boolean winnerTakesAll = in.readBoolean();
+        float[] scores = new float[in.readUnsignedByte()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = in.readFloat();
+        }
+        long remainingNanos = in.readLong();
+        Timer turnTimer = remainingNanos < 0 ? null : new Timer(remainingNanos);
+        return new GameState(gameMode, mapName, width, height, teamCount, active, winnerTakesAll, scores, turnTimer);
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.simulation;
+
+import com.badlogic.gdx.utils.JsonValue;
+
+import java.util.*;
+
+/**
+ * Permutations of the seats of a game, under which a map plays the same. Seat i of a game spawns at the i-th spawn
+ * group of the map, ordered by tile type. A map declares its symmetries as generators permuting its spawn groups, e.g.
+ * a rotation of four spawn groups:
+ * <pre>
+ * "seatSymmetries": [[1, 2, 3, 0]]
+ * </pre>
+ * A generator maps spawn group i to spawn group generator[i]. The group generated by them is closed, generators not
+ * mapping the seats used by a game onto themselves are ignored for that game. Seats also decide the order of turns,
+ * a map should only declare symmetries, under which the turn order does not matter.
+ * <p>
+ * Two matchups are equivalent, if one is the image of the other: player p on seat i is moved to seat g[i]. As the
+ * players of a matchup are distinct, every equivalence class has exactly {@link #getOrder()} members.
+ */
+public final class SeatSymmetry {
+
+    /**
+     * Every seat order plays differently.
+     */
+    public static final SeatSymmetry NONE = new SeatSymmetry(Collections.emptyList());
+
+    private final List<int[]> permutations;
+
+    private SeatSymmetry(List<int[]> permutations) {
+        this.permutations = permutations;
+    }
+
+    /**
+     * Reads the symmetries declared by a map. Maps without declaration, or that cannot be read, have no symmetry.
+     *
+     * @param mapName   Name of the map without type
+     * @param teamCount number of seats of the games on the map
+     */
+    public static SeatSymmetry ofMap(String mapName, int teamCount) {
+        JsonValue declaration;
+        try {
+            declaration = GameState.readMap(mapName).get("seatSymmetries");
+        } catch (RuntimeException e) {
+            System.err.println("Unable to read seat symmetries of map " + mapName + ": " + e.getMessage());
+            return NONE;
+        }
+        if (declaration == null) return NONE;
+        List<int[]> generators = new ArrayList<>();
+        for (JsonValue generator = declaration.child; generator != null; generator = generator.next) {
+            generators.add(generator.asIntArray());
+        }
+        return generate(teamCount, generators);
+    }
+
+    /**
+     * @param teamCount  number of seats
+     * @param generators permutations of the spawn groups, see {@link SeatSymmetry}
+     * @throws IllegalArgumentException if a generator is not a permutation
+     */
+    public static SeatSymmetry generate(int teamCount, List<int[]> generators) {
+        List<int[]> seatGenerators = new ArrayList<>();
+        for (int[] generator : generators) {
+            boolean[] images = new boolean[generator.length];
+            for (int image : generator) {
+                if (image < 0 || image >= generator.length || images[image])
+                    throw new IllegalArgumentException("Not a permutation: " + Arrays.toString(generator));
+                images[image] = true;
+            }
+            if (generator.length < teamCount) continue;
+            int[] seats = Arrays.copyOf(generator, teamCount);
+            //A permutation maps the used seats onto themselves, if none of them leaves the range
+            if (Arrays.stream(seats).allMatch(image -> image < teamCount)) seatGenerators.add(seats);
+        }
+        if (seatGenerators.isEmpty()) return NONE;
+
+        int[] identity = new int[teamCount];
+        for (int i = 0; i < teamCount; i++) identity[i] = i;
+        Set<List<Integer>> found = new HashSet<>();
+        found.add(asList(identity));
+        Deque<int[]> pending = new ArrayDeque<>();
+        pending.add(identity);
+        List<int[]> permutations = new ArrayList<>();
+        while (!pending.isEmpty()) {
+            int[] permutation = pending.poll();
+            if (permutation != identity) permutations.add(permutation);
+            for (int[] generator : seatGenerators) {
+                int[] product = new int[teamCount];
+                for (int i = 0; i < teamCount; i++) product[i] = generator[permutation[i]];
+                if (found.add(asList(product))) pending.add(product);
+            }
+        }
+        return new SeatSymmetry(permutations);
+    }
+
+    private static List<Integer> asList(int[] permutation) {
+        List<Integer> list = new ArrayList<>(permutation.length);
+        for (int i : permutation) list.add(i);
+        return list;
+    }
+
+    /**
+     * @return Number of seat permutations, including the identity, which is the size of every equivalence class
+     */
+    public int getOrder() {
+        return permutations.size() + 1;
+    }
+
+    /**
+     * @return True, if the matchup is the lexicographically smallest of its equivalence class
+     */
+    public <T extends Comparable<T>> boolean isCanonical(List<T> matchUp) {
+        for (int[] permutation : permutations) {
+            if (compareToImage(matchUp, permutation) > 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return The lexicographically smallest matchup equivalent to the given one
+     */
+    public <T extends Comparable<T>> List<T> canonical(List<T> matchUp) {
+        List<T> smallest = matchUp;
+        for (int[] permutation : permutations) {
+            List<T> image = image(matchUp, permutation);
+            for (int i = 0; i < image.size(); i++) {
+                int comparison = image.get(i).compareTo(smallest.get(i));
+                if (comparison < 0) smallest = image;
+                if (comparison != 0) break;
+            }
+        }
+        return smallest;
+    }
+
+    /**
+     * Compares a matchup to its image without creating it: the player on seat i of the image sits on seat
+     * inverse[i] of the matchup.
+     */
+    private static <T extends Comparable<T>> int compareToImage(List<T> matchUp, int[] permutation) {
+        int[] inverse = new int[permutation.length];
+        for (int i = 0; i < permutation.length; i++) inverse[permutation[i]] = i;
+        for (int i = 0; i < inverse.length; i++) {
+            int comparison = matchUp.get(i).compareTo(matchUp.get(inverse[i]));
+            if (comparison != 0) return comparison;
+        }
+        return 0;
+    }
+
+    private static <T> List<T> image(List<T> matchUp, int[] permutation) {
+        List<T> image = new ArrayList<>(matchUp);
+        for (int i = 0; i < permutation.length; i++) image.set(permutation[i], matchUp.get(i));
+        return image;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("SeatSymmetry{order=").append(getOrder());
+        for (int[] permutation : permutations) builder.append(", ").append(Arrays.toString(permutation));
+        return builder.append('}').toString();
+    }
+}
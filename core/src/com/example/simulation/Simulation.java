@@ -26,11 +26,22 @@ public class Simulation {
         return SCORE_WIN[placement];
     }
     public static final float SCORE_ASSIST = 25;
+
+    /**
+     * Version der Spiellogik. Muss erhöht werden, wenn eine Änderung die Ergebnisse von Spielen verändern kann,
+     * da zwischengespeicherte Ergebnisse sonst weiterverwendet werden.
+     */
+    public static final int ENGINE_VERSION = 1;
     private final GameState gameState;
+    private final boolean recording;
     private ActionLog actionLog;
 
     private int remainingTeams;
     int turnsWithoutAction = 0;
+    private int turnsWithoutScoreChange = 0;
+    private int turns = 0;
+    private int lastScoreChanges = 0;
+    private StalemateRules stalemateRules = StalemateRules.NONE;
 
     /**
      * erstellt eine neue Simulation
@@ -40,10 +51,25 @@ public class Simulation {
      * @param teamAm   Anzahl Teams
      */
     public Simulation(GameMode gameMode, String mapName, int teamAm) {
-        gameState = new GameState(gameMode, mapName, teamAm, this);
+        this(gameMode, mapName, teamAm, true, 0);
+    }
+
+    /**
+     * erstellt eine neue Simulation
+     *
+     * @param gameMode  Modus in dem gespielt wird
+     * @param mapName   Map auf der gespielt wird
+     * @param teamAm    Anzahl Teams
+     * @param recording false, wenn die ActionLogs von niemandem ausgewertet werden. Ereignisse werden dann verworfen,
+     *                  statt aufgezeichnet zu werden, die Spiellogik bleibt unverändert
+     * @param seed      Seed aller zufälligen Entscheidungen der Simulation. Gleiche Seeds ergeben gleiche Spiele
+     */
+    public Simulation(GameMode gameMode, String mapName, int teamAm, boolean recording, long seed) {
+        this.recording = recording;
+        gameState = new GameState(gameMode, mapName, teamAm, this, seed);
         Integer team = gameState.getTurn().peek();
         assert team != null;
-        actionLog = new ActionLog(new TurnStartAction(0, team));
+        actionLog = newTurnLog(team);
         remainingTeams = teamAm;
     }
 
@@ -73,10 +99,37 @@ public class Simulation {
         return actionLog;
     }
 
+    /**
+     * @return false, wenn Ereignisse verworfen werden, statt in ActionLogs aufgezeichnet zu werden
+     */
+    public boolean isRecording() {
+        return recording;
+    }
+
+    private ActionLog newTurnLog(int team) {
+        return recording ? new ActionLog(new TurnStartAction(0, team)) : ActionLog.discarding();
+    }
+
     public void setTurnTimer(Timer timer) {
         gameState.setTurnTimer(timer);
     }
 
+    /**
+     * Setzt die Bedingungen, unter denen ein nicht entschiedenes Spiel beendet wird. Standard ist {@link StalemateRules#NONE}.
+     *
+     * @param stalemateRules die Bedingungen, {@link StalemateRules#NONE} deaktiviert alle
+     */
+    public void setStalemateRules(StalemateRules stalemateRules) {
+        this.stalemateRules = Objects.requireNonNull(stalemateRules);
+    }
+
+    /**
+     * Wird von Befehlen aufgerufen, die den Zustand des Spiels verändert haben. Zählt für die Erkennung eines Patts.
+     */
+    void registerAction() {
+        turnsWithoutAction = 0;
+    }
+
     public GameCharacterController getController() {
         Integer team = gameState.getTurn().peek();
         assert team != null;
@@ -87,8 +140,23 @@ public class Simulation {
 
 
 
+    /**
+     * Beendet den Zug des aktiven Teams. Ist das Spiel danach entschieden oder tritt ein Patt nach den
+     * {@link StalemateRules} ein, endet das Spiel mit einer {@link GameOverAction}.
+     * <p>
+     * Bei einem Patt gewinnt das Team mit der höchsten Punktzahl und erhält die Punkte für den ersten Platz. Teilen sich
+     * mehrere Teams die höchste Punktzahl, endet das Spiel unentschieden ohne weitere Punkte.
+     *
+     * @return Der ActionLog des beendeten Zuges
+     */
     public ActionLog endTurn() {
         turnsWithoutAction++;
+        turns++;
+        int scoreChanges = gameState.getScoreChanges();
+        if (scoreChanges != lastScoreChanges) {
+            lastScoreChanges = scoreChanges;
+            turnsWithoutScoreChange = 0;
+        } else turnsWithoutScoreChange++;
 
         int activeTeam = getActiveTeam();
 
@@ -109,11 +177,11 @@ public class Simulation {
                 for (int i = 0; i < teamCount; i++) {
                     if (remainingCharacters[i] > 0) {
                         gameState.addScore(actionLog.getRootAction(), i, SCORE_WIN[0]);
-                        actionLog.getRootAction().addChild(new GameOverAction(i));
+                        if (recording) actionLog.getRootAction().addChild(new GameOverAction(i));
                         break;
                     }
                 }
-            }else{
+            }else if (recording) {
                 actionLog.getRootAction().addChild(new GameOverAction(-1));
             }
             //End game
@@ -121,17 +189,41 @@ public class Simulation {
             return this.actionLog;
         }
 
+        if (stalemateRules.isStalemate(turnsWithoutAction, turnsWithoutScoreChange, turns)) {
+            endStalemate();
+            return this.actionLog;
+        }
+
         Integer team = gameState.getTurn().peek();
         ActionLog lastTurn = this.actionLog;
         assert team != null;
-        this.actionLog = new ActionLog(new TurnStartAction(0, team));
+        this.actionLog = newTurnLog(team);
         return lastTurn;
 
     }
 
+    /**
+     * Ends the game in favour of the team with the highest score, or in a draw if several teams share it.
+     */
+    private void endStalemate() {
+        float[] scores = gameState.getScores();
+        int winner = 0;
+        boolean tie = false;
+        for (int i = 1; i < scores.length; i++) {
+            if (scores[i] > scores[winner]) {
+                winner = i;
+                tie = false;
+            } else if (scores[i] == scores[winner]) tie = true;
+        }
+        if (tie || scores.length == 0) winner = -1;
+        if (winner >= 0) gameState.addScore(actionLog.getRootAction(), winner, SCORE_WIN[0]);
+        if (recording) actionLog.getRootAction().addChild(new GameOverAction(winner));
+        gameState.deactivate();
+    }
+
     public ActionLog clearAndReturnActionLog() {
         ActionLog tmp = this.actionLog;
-        this.actionLog = new ActionLog(new InitAction());
+        this.actionLog = recording ? new ActionLog(new InitAction()) : ActionLog.discarding();
         return tmp;
     }
 
@@ -0,0 +1,128 @@
+package com.example.simulation;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Two dimensional grid, that supports cheap immutable snapshots by structural sharing.
+ * <p>
+ * The cells are stored in square chunks. A snapshot shares all chunks with the grid it was taken from, the first write
+ * to a chunk after a snapshot copies this chunk only. Taking a snapshot is therefore O(1), and the writes between two
+ * snapshots cost one chunk copy per touched chunk plus one copy of the chunk index, independent of the size of the grid.
+ * Snapshots are read-only.
+ *
+ * @param <T> type of the cells, should be immutable, cells are shared between snapshots
+ */
+final class SnapshotGrid<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int CHUNK_SHIFT = 4;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final int width;
+    private final int height;
+    private final int chunksX;
+    private final boolean readOnly;
+    private Object[][] chunks;
+    //Chunk i is exclusively owned by this grid, if chunkEpochs[i] == epoch, otherwise it may be shared with a snapshot
+    private int[] chunkEpochs;
+    private int epoch = 1;
+    private boolean indexShared = false;
+
+    SnapshotGrid(int width, int height) {
+        if (width < 0 || height < 0) throw new IllegalArgumentException("Size of a grid must not be negative");
+        this.width = width;
+        this.height = height;
+        this.chunksX = (width + CHUNK_MASK) >> CHUNK_SHIFT;
+        int chunkCount = chunksX * ((height + CHUNK_MASK) >> CHUNK_SHIFT);
+        chunks = new Object[chunkCount][];
+        chunkEpochs = new int[chunkCount];
+        readOnly = false;
+    }
+
+    private SnapshotGrid(SnapshotGrid<T> original) {
+        width = original.width;
+        height = original.height;
+        chunksX = original.chunksX;
+        chunks = original.chunks;
+        chunkEpochs = null;
+        readOnly = true;
+    }
+
+    /**
+     * @return An immutable view of the current content, sharing all chunks with this grid
+     */
+    SnapshotGrid<T> snapshot() {
+        if (readOnly) return this;
+        epoch++;
+        indexShared = true;
+        return new SnapshotGrid<>(this);
+    }
+
+    @SuppressWarnings("unchecked")
+    T get(int x, int y) {
+        checkBounds(x, y);
+        Object[] chunk = chunks[chunkIndex(x, y)];
+        return chunk == null ? null : (T) chunk[cellIndex(x, y)];
+    }
+
+    void set(int x, int y, T value) {
+        checkBounds(x, y);
+        if (readOnly) throw new UnsupportedOperationException("Snapshots of a grid are read-only");
+        if (indexShared) {
+            chunks = Arrays.copyOf(chunks, chunks.length);
+            indexShared = false;
+        }
+        int index = chunkIndex(x, y);
+        Object[] chunk = chunks[index];
+        if (chunk == null) {
+            if (value == null) return;
+            chunk = new Object[CHUNK_SIZE * CHUNK_SIZE];
+        } else if (chunkEpochs[index] != epoch) {
+            chunk = Arrays.copyOf(chunk, chunk.length);
+        } else {
+            chunk[cellIndex(x, y)] = value;
+            return;
+        }
+        chunk[cellIndex(x, y)] = value;
+        chunks[index] = chunk;
+        chunkEpochs[index] = epoch;
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    boolean isReadOnly() {
+        return readOnly;
+    }
+
+    private int chunkIndex(int x, int y) {
+        return (y >> CHUNK_SHIFT) * chunksX + (x >> CHUNK_SHIFT);
+    }
+
+    private static int cellIndex(int x, int y) {
+        return ((y & CHUNK_MASK) << CHUNK_SHIFT) | (x & CHUNK_MASK);
+    }
+
+    private void checkBounds(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height)
+            throw new IndexOutOfBoundsException("(" + x + ", " + y + ") is outside of the grid of size " + width + "x" + height);
+    }
+
+    @Override
+    public String toString() {
+        return "SnapshotGrid{" +
+                "width=" + width +
+                ", height=" + height +
+                ", chunks=" + chunks.length +
+                ", readOnly=" + readOnly +
+                '}';
+    }
+}
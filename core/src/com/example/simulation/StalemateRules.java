@@ -0,0 +1,74 @@
+package com.example.simulation;
+
+import java.io.Serializable;
+
+/**
+ * Conditions, under which the {@link Simulation} ends a game, that is not decided by the players.
+ * <p>
+ * All limits count single turns of any team, a limit of 0 disables the respective condition. A game ended by these
+ * rules is decided by the tie-break of {@link Simulation#endTurn()}: the team with the highest score wins and receives
+ * {@link Simulation#getWinScore(int) the score of the first place}, if several teams share the highest score the game
+ * ends in a draw without further score.
+ */
+public final class StalemateRules implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Games only end, when their players decide them. Used for games with gui, where humans may take their time.
+     */
+    public static final StalemateRules NONE = new StalemateRules(0, 0, 0);
+
+    /**
+     * Used by headless multi-game runs of bots: ends passive games, e.g. between
+     * {@link com.example.manager.IdleBot IdleBots}, after a round of some turns, and any game after 1000 turns.
+     */
+    public static final StalemateRules HEADLESS = new StalemateRules(20, 200, 1000);
+
+    private final int turnsWithoutAction;
+    private final int turnsWithoutScoreChange;
+    private final int maxTurns;
+
+    /**
+     * @param turnsWithoutAction      turns in a row, in which no command changed the state of the game
+     * @param turnsWithoutScoreChange turns in a row, in which no score changed
+     * @param maxTurns                turns after which every game ends
+     */
+    public StalemateRules(int turnsWithoutAction, int turnsWithoutScoreChange, int maxTurns) {
+        if (turnsWithoutAction < 0 || turnsWithoutScoreChange < 0 || maxTurns < 0)
+            throw new IllegalArgumentException("Stalemate limits must not be negative");
+        this.turnsWithoutAction = turnsWithoutAction;
+        this.turnsWithoutScoreChange = turnsWithoutScoreChange;
+        this.maxTurns = maxTurns;
+    }
+
+    public int getTurnsWithoutAction() {
+        return turnsWithoutAction;
+    }
+
+    public int getTurnsWithoutScoreChange() {
+        return turnsWithoutScoreChange;
+    }
+
+    public int getMaxTurns() {
+        return maxTurns;
+    }
+
+    /**
+     * @return True, if a game in the given situation has to end
+     */
+    boolean isStalemate(int turnsWithoutAction, int turnsWithoutScoreChange, int turns) {
+        return this.turnsWithoutAction > 0 && turnsWithoutAction >= this.turnsWithoutAction
+                || this.turnsWithoutScoreChange > 0 && turnsWithoutScoreChange >= this.turnsWithoutScoreChange
+                || maxTurns > 0 && turns >= maxTurns;
+    }
+
+    @Override
+    public String toString() {
+        return "StalemateRules{" +
+                "turnsWithoutAction=" + turnsWithoutAction +
+                ", turnsWithoutScoreChange=" + turnsWithoutScoreChange +
+                ", maxTurns=" + maxTurns +
+                '}';
+    }
+}
@@ -8,6 +8,8 @@ import java.io.Serializable;
  */
 public class ActionLog implements Serializable {
 
+    private static final ActionLog DISCARDING = new ActionLog(new DiscardingAction());
+
     private final Action rootAction;
 
     /**
@@ -30,4 +32,20 @@ public class ActionLog implements Serializable {
         return rootAction;
     }
 
+    /**
+     * Returns the log used by simulations, whose logs are not consumed by anyone. Actions added to it are dropped, so
+     * a single instance is shared by all of them.
+     * @return The shared discarding log
+     */
+    public static ActionLog discarding() {
+        return DISCARDING;
+    }
+
+    /**
+     * @return True, if this is the log returned by {@link #discarding()}
+     */
+    public boolean isDiscarding() {
+        return this == DISCARDING;
+    }
+
 }
@@ -0,0 +1,22 @@
+package com.example.simulation.action;
+
+/**
+ * Root of the log returned by {@link ActionLog#discarding()}. Children added to it are dropped immediately.
+ */
+final class DiscardingAction extends Action {
+
+    private static final long serialVersionUID = 1L;
+
+    DiscardingAction() {
+        super(0);
+    }
+
+    @Override
+    public void addChild(Action a) {
+    }
+
+    @Override
+    public String toString() {
+        return "DiscardingAction";
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.manager;
+
+import com.example.simulation.GameState;
+import com.example.simulation.GameStateCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per turn overhead of bots hosted by a {@link BotProcessPool}: one TURN frame carrying the state
+ * snapshot, one command and the TURN_DONE answer, compared to the cold start of a process.
+ * <p>
+ * Usage: BenchmarkBotProcess [turns]
+ */
+public class BenchmarkBotProcess {
+
+    public static void main(String[] args) throws IOException {
+        int turns = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        BotProcessPool pool = new BotProcessPool(1);
+        long start = System.nanoTime();
+        BotProcess process = pool.lease();
+        System.out.printf("cold start: %.1f ms%n", (System.nanoTime() - start) / 1e6);
+        GameState state = createState();
+        process.init(IdleBot.class.getName(), 0, state);
+
+        LatencyStats latency = new LatencyStats();
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < turns; i++) {
+                Controller controller = new Controller(cmd -> {
+                }, 0, 200);
+                long turnStart = System.nanoTime();
+                process.executeTurn(state, controller);
+                if (round > 0) latency.record(System.nanoTime() - turnStart);
+            }
+        }
+        System.out.printf("turn round trip: mean %.1f us, p50 %.1f us, p99 %.1f us, max %.1f us%n",
+                latency.getMean(TimeUnit.MICROSECONDS), latency.getPercentile(50, TimeUnit.MICROSECONDS),
+                latency.getPercentile(99, TimeUnit.MICROSECONDS), latency.getMax(TimeUnit.MICROSECONDS));
+        pool.release(process);
+        pool.close();
+    }
+
+    /**
+     * Creates a snapshot as seen by bots, without loading a map
+     */
+    private static GameState createState() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeByte(GameState.GameMode.Tournament_Phase_1.ordinal());
+        out.writeBoolean(false);
+        out.writeShort(32);
+        out.writeShort(32);
+        out.writeByte(4);
+        out.writeBoolean(true);
+        out.writeBoolean(false);
+        out.writeByte(4);
+        for (int i = 0; i < 4; i++) out.writeFloat(i);
+        out.writeLong(TimeUnit.MILLISECONDS.toNanos(500));
+        return GameStateCodec.read(new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.manager;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Compares the handoff of commands from a bot to the simulation thread through the {@link ArrayBlockingQueue}, that
+ * has been used by {@link Game} before, and the {@link MpscRingBuffer}.
+ * <p>
+ * Latency: the producer sends a timestamp after a short pause, like a bot issuing single commands, and the consumer
+ * records the time until it received it. Throughput: the producer sends a burst, like a bot issuing its commands in a
+ * loop.
+ * <p>
+ * Usage: BenchmarkCommandHandoff [commands]
+ */
+public class BenchmarkCommandHandoff {
+
+    private static final long SEND_INTERVAL_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+
+    private interface Channel {
+        void put(long[] element) throws InterruptedException;
+
+        long[] take() throws InterruptedException;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int commands = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        for (int round = 0; round < 3; round++) {
+            BlockingQueue<long[]> queue = new ArrayBlockingQueue<>(256);
+            report("ArrayBlockingQueue", new Channel() {
+                @Override
+                public void put(long[] element) throws InterruptedException {
+                    queue.put(element);
+                }
+
+                @Override
+                public long[] take() throws InterruptedException {
+                    return queue.take();
+                }
+            }, commands);
+            MpscRingBuffer<long[]> ring = new MpscRingBuffer<>(256);
+            report("MpscRingBuffer", new Channel() {
+                @Override
+                public void put(long[] element) throws InterruptedException {
+                    ring.put(element);
+                }
+
+                @Override
+                public long[] take() throws InterruptedException {
+                    return ring.take();
+                }
+            }, commands);
+        }
+        System.exit(0);
+    }
+
+    private static void report(String name, Channel channel, int commands) throws InterruptedException {
+        LatencyStats latency = new LatencyStats();
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < commands / 10; i++) {
+                    LockSupport.parkNanos(SEND_INTERVAL_NANOS);
+                    channel.put(new long[]{System.nanoTime()});
+                }
+            } catch (InterruptedException ignored) {
+            }
+        });
+        producer.start();
+        for (int i = 0; i < commands / 10; i++) {
+            long sentAt = channel.take()[0];
+            latency.record(System.nanoTime() - sentAt);
+        }
+        producer.join();
+
+        long[] element = new long[1];
+        long start = System.nanoTime();
+        producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < commands; i++) {
+                    channel.put(element);
+                }
+            } catch (InterruptedException ignored) {
+            }
+        });
+        producer.start();
+        for (int i = 0; i < commands; i++) {
+            channel.take();
+        }
+        long duration = System.nanoTime() - start;
+        producer.join();
+        System.out.printf("%-20s latency p50 %6.2f us, p99 %7.2f us | burst %6.1f ns/command%n", name,
+                latency.getPercentile(50, TimeUnit.MICROSECONDS), latency.getPercentile(99, TimeUnit.MICROSECONDS),
+                (double) duration / commands);
+    }
+}
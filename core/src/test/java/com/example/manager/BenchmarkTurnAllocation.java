@@ -0,0 +1,98 @@
+package com.example.manager;
+
+import com.example.simulation.GameState;
+import com.example.simulation.StalemateRules;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the heap allocated per turn by the turn loop of {@link Game}.
+ * <p>
+ * A number of games between {@link IdleBot IdleBots} is played on the {@link Manager}. After a warm up the bytes
+ * allocated by all threads of the JVM are sampled together with the number of turns played, so the result is an
+ * upper bound, that includes the Manager and the turn watchdog. If the map is not available in ./maps, a minimal map is
+ * created there for the duration of the benchmark.
+ * <p>
+ * Usage: BenchmarkTurnAllocation [games] [seconds] [mapName]
+ */
+public class BenchmarkTurnAllocation {
+
+    private static final String GENERATED_MAP = "benchmark_allocation";
+
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        String mapName = args.length > 2 ? args[2] : GENERATED_MAP;
+        File generatedMap = mapName.equals(GENERATED_MAP) ? createMap() : null;
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+        Manager manager = Manager.getManager();
+        List<Game> running = new ArrayList<>();
+        try {
+            for (int i = 0; i < games; i++) {
+                GameConfig config = new GameConfig();
+                config.gameMode = GameState.GameMode.Tournament_Phase_1;
+                config.mapName = mapName;
+                config.teamCount = 2;
+                //Idle games would end as a stalemate after a few turns
+                config.stalemateRules = StalemateRules.NONE;
+                config.players = new ArrayList<>();
+                config.players.add(IdleBot.class);
+                config.players.add(IdleBot.class);
+                Game game = new Game(config);
+                running.add(game);
+                manager.schedule(game);
+            }
+            //Warm up
+            Thread.sleep(seconds * 300L);
+            for (int round = 0; round < 3; round++) {
+                long turnsBefore = countTurns(running);
+                long bytesBefore = allocatedBytes(threads);
+                Thread.sleep(seconds * 1000L / 3);
+                long bytes = allocatedBytes(threads) - bytesBefore;
+                long turns = countTurns(running) - turnsBefore;
+                System.out.printf("%d turns, %.0f turns/s, %.0f bytes/turn%n", turns, turns * 3.0 / seconds,
+                        turns > 0 ? (double) bytes / turns : Double.NaN);
+            }
+        } finally {
+            manager.dispose();
+            if (generatedMap != null && !generatedMap.delete()) generatedMap.deleteOnExit();
+        }
+        System.exit(0);
+    }
+
+    private static long countTurns(List<Game> games) {
+        long turns = 0;
+        for (Game game : games) {
+            turns += game.getTurnLatency().getCount();
+        }
+        return turns;
+    }
+
+    private static long allocatedBytes(com.sun.management.ThreadMXBean threads) {
+        long sum = 0;
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) sum += bytes;
+        }
+        return sum;
+    }
+
+    /**
+     * Creates a 4x4 map with one spawn point per team
+     */
+    private static File createMap() throws IOException {
+        File dir = new File("maps");
+        if (!dir.exists() && !dir.mkdirs()) throw new IOException("Unable to create " + dir.getAbsolutePath());
+        File map = new File(dir, GENERATED_MAP + ".json");
+        Files.write(map.toPath(), ("{\"width\":4,\"height\":4,\"layers\":[{\"data\":" +
+                "[101,1,1,1, 0,0,0,0, 0,0,0,0, 1,1,1,102]}]}").getBytes(StandardCharsets.UTF_8));
+        return map;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.manager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Compares the throughput of the turn orchestration in {@link Game} with platform and virtual threads.
+ * <p>
+ * Every simulated game owns a {@link BotThread} and mimics the turn loop of {@link Game}:
+ * the (empty) bot turn is handed to the BotThread and the end of the turn is signalled to the game loop through a
+ * blocking queue. The timeout is either enforced by a waiter thread per turn, that blocks on future.get, or by a
+ * deadline on the shared {@link TimerWheel}, that is cancelled by the completing bot.
+ * <p>
+ * Usage: BenchmarkTurnOrchestration [games] [turnsPerGame]
+ */
+public class BenchmarkTurnOrchestration {
+
+    private static final long TIMEOUT = 600;
+
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+        int turns = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        System.out.printf("Virtual threads supported: %b%n", GameThreads.isVirtualThreadSupported());
+        //Warm up
+        run(false, false, games, turns / 10);
+        run(true, false, games, turns / 10);
+        run(false, true, games, turns / 10);
+        for (int i = 0; i < 3; i++) {
+            System.out.printf("platform, waiter:   %10.0f turns/s%n", run(false, false, games, turns));
+            System.out.printf("virtual, waiter:    %10.0f turns/s%n", run(true, false, games, turns));
+            System.out.printf("platform, watchdog: %10.0f turns/s%n", run(false, true, games, turns));
+            System.out.printf("virtual, watchdog:  %10.0f turns/s%n", run(true, true, games, turns));
+        }
+        System.exit(0);
+    }
+
+    private static double run(boolean virtual, boolean watchdog, int games, int turns) throws InterruptedException {
+        TimerWheel timerWheel = TimerWheel.getShared();
+        List<Thread> loops = new ArrayList<>();
+        List<BotThread> bots = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(games);
+        long start = System.nanoTime();
+        for (int g = 0; g < games; g++) {
+            BotThread bot = new BotThread();
+            bots.add(bot);
+            Thread loop = GameThreads.newThread(virtual, () -> {
+                BlockingQueue<Object> endOfTurn = new ArrayBlockingQueue<>(1);
+                for (int t = 0; t < turns; t++) {
+                    bot.waitForCompletion();
+                    if (watchdog) {
+                        AtomicBoolean ended = new AtomicBoolean(false);
+                        Future<?> future = bot.execute(() -> {
+                            if (ended.compareAndSet(false, true)) endOfTurn.add(Boolean.TRUE);
+                        });
+                        TimerWheel.Timeout deadline = timerWheel.schedule(() -> {
+                            if (!ended.compareAndSet(false, true)) return;
+                            future.cancel(true);
+                            endOfTurn.add(Boolean.TRUE);
+                        }, TIMEOUT, TimeUnit.MILLISECONDS);
+                        try {
+                            endOfTurn.take();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        deadline.cancel();
+                        continue;
+                    }
+                    Future<?> future = bot.execute(() -> {
+                    });
+                    Thread waiter = GameThreads.newThread(virtual, () -> {
+                        try {
+                            future.get(TIMEOUT, TimeUnit.MILLISECONDS);
+                        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+                            future.cancel(true);
+                        }
+                        endOfTurn.add(Boolean.TRUE);
+                    }, "Benchmark_Waiter");
+                    waiter.start();
+                    try {
+                        endOfTurn.take();
+                        waiter.join();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                done.countDown();
+            }, "Benchmark_Game_Loop");
+            loops.add(loop);
+            loop.start();
+        }
+        done.await();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        for (BotThread bot : bots) bot.shutdown();
+        return games * (double) turns / seconds;
+    }
+}
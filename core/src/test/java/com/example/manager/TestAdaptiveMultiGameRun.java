@@ -0,0 +1,92 @@
+package com.example.manager;
+
+import com.example.simulation.GameState;
+import com.example.simulation.StalemateRules;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TestAdaptiveMultiGameRun {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    public static class Strength0 extends IdleBot {
+    }
+
+    public static class Strength1 extends IdleBot {
+    }
+
+    public static class Strength2 extends IdleBot {
+    }
+
+    public static class Strength3 extends IdleBot {
+    }
+
+    public static class Strength4 extends IdleBot {
+    }
+
+    public static class Strength5 extends IdleBot {
+    }
+
+    private static final List<Class<? extends Player>> PLAYERS = Arrays.asList(
+            Strength0.class, Strength1.class, Strength2.class, Strength3.class, Strength4.class, Strength5.class);
+
+    private static RunConfiguration createConfig() {
+        RunConfiguration config = new RunConfiguration();
+        config.gameMode = GameState.GameMode.Tournament_Phase_1;
+        config.mapName = "map";
+        config.teamCount = 2;
+        config.players = new ArrayList<>(PLAYERS);
+        config.resultCache = true;
+        config.rankingConfidence = 0.95;
+        config.stalemateRules = StalemateRules.NONE;
+        return config;
+    }
+
+    /**
+     * Every matchup is answered by the cache, a player always scores 100 times its strength, no game is played.
+     */
+    private static void fillCache(ResultCache cache, RunConfiguration runConfig) throws Exception {
+        for (int first = 0; first < PLAYERS.size(); first++) {
+            for (int second = 0; second < PLAYERS.size(); second++) {
+                if (first == second) continue;
+                GameConfig config = new GameConfig(runConfig);
+                config.players = Arrays.asList(PLAYERS.get(first), PLAYERS.get(second));
+                config.seed = PlayerDigests.matchUpSeed(config.mapName, config.players);
+                cache.put(ResultCache.keyOf(config), new float[]{first * 100, second * 100});
+            }
+        }
+    }
+
+    @Test
+    public void testStopsWhenRankingIsStable() throws Exception {
+        Manager manager = Manager.getManager();
+        Field cacheField = Manager.class.getDeclaredField("resultCache");
+        cacheField.setAccessible(true);
+        Object sharedCache = cacheField.get(manager);
+        try (ResultCache cache = ResultCache.open(folder.getRoot())) {
+            RunConfiguration runConfig = createConfig();
+            fillCache(cache, runConfig);
+            cacheField.set(manager, cache);
+
+            AdaptiveMultiGameRun run = new AdaptiveMultiGameRun(manager, runConfig);
+            Assert.assertTrue(run.isCompleted());
+            Assert.assertEquals(30, run.exhaustiveGameCount);
+            Assert.assertTrue("The stable ranking has to save games, played " + run.completed, run.getSavedGames() > 0);
+            Assert.assertEquals(run.exhaustiveGameCount - run.completed, run.getSavedGames());
+            float[] scores = run.getScores();
+            for (int player = 0; player < PLAYERS.size(); player++) {
+                Assert.assertEquals(player * 100, scores[player], 1e-3);
+            }
+        } finally {
+            cacheField.set(manager, sharedCache);
+        }
+    }
+}
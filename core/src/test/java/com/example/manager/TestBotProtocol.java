@@ -0,0 +1,87 @@
+package com.example.manager;
+
+import com.example.manager.command.BatchCommand;
+import com.example.manager.command.Command;
+import com.example.manager.command.CommandCodec;
+import com.example.manager.command.FooCommand;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestBotProtocol {
+
+    @Test
+    public void testFrameRoundTrip() throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        BotProtocol.FrameWriter writer = new BotProtocol.FrameWriter(stream);
+        writer.send(BotProtocol.READY);
+        writer.begin(BotProtocol.INIT_DONE).writeUTF("bot");
+        writer.send();
+        //Larger than the initial buffer of the reader
+        writer.begin(BotProtocol.ERROR).writeUTF("x".repeat(1000));
+        writer.send();
+
+        BotProtocol.FrameReader reader = new BotProtocol.FrameReader(new ByteArrayInputStream(stream.toByteArray()));
+        Assert.assertEquals(BotProtocol.READY, reader.next());
+        Assert.assertEquals(BotProtocol.INIT_DONE, reader.next());
+        Assert.assertEquals("bot", reader.getPayload().readUTF());
+        Assert.assertEquals(BotProtocol.ERROR, reader.next());
+        Assert.assertEquals(1000, reader.getPayload().readUTF().length());
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidFrameLength() throws IOException {
+        BotProtocol.FrameReader reader = new BotProtocol.FrameReader(new ByteArrayInputStream(new byte[]{-1, -1, -1, -1}));
+        reader.next();
+    }
+
+    @Test
+    public void testCommandRoundTrip() throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        BotProtocol.FrameWriter writer = new BotProtocol.FrameWriter(stream);
+        CommandCodec.write(new FooCommand(null, 42), writer.begin(BotProtocol.COMMAND));
+        writer.send();
+
+        BotProtocol.FrameReader reader = new BotProtocol.FrameReader(new ByteArrayInputStream(stream.toByteArray()));
+        Assert.assertEquals(BotProtocol.COMMAND, reader.next());
+        Command cmd = CommandCodec.read(reader.getPayload(), null);
+        Assert.assertTrue(cmd instanceof FooCommand);
+        Assert.assertEquals(42, ((FooCommand) cmd).getI());
+    }
+
+    @Test
+    public void testBatchRoundTrip() throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        BotProtocol.FrameWriter writer = new BotProtocol.FrameWriter(stream);
+        Controller botSide = new Controller(cmd -> {
+            try {
+                CommandCodec.write(cmd, writer.begin(BotProtocol.COMMAND));
+                writer.send();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }, 0, 200);
+        botSide.startBatch();
+        for (int i = 0; i < 3; i++) {
+            botSide.foo(i);
+        }
+        botSide.submitBatch();
+
+        //The batch is sent as a single frame, but every command counts towards the uses of the receiving controller
+        List<Command> received = new ArrayList<>();
+        Controller gameSide = new Controller(received::add, 0, 2);
+        BotProtocol.FrameReader reader = new BotProtocol.FrameReader(new ByteArrayInputStream(stream.toByteArray()));
+        Assert.assertEquals(BotProtocol.COMMAND, reader.next());
+        gameSide.queueEncoded(reader.getPayload());
+        Assert.assertEquals(1, received.size());
+        Assert.assertTrue(received.get(0) instanceof BatchCommand);
+        List<Command> commands = ((BatchCommand) received.get(0)).getCommands();
+        Assert.assertEquals(2, commands.size());
+        Assert.assertEquals(1, ((FooCommand) commands.get(1)).getI());
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.manager;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class TestBotThreadPool {
+
+    @Test
+    public void testReleasedThreadIsReused() {
+        BotThreadPool pool = new BotThreadPool(2);
+        BotThread thread = pool.lease();
+        pool.release(thread);
+        Assert.assertEquals(1, pool.getIdleCount());
+        Assert.assertSame(thread, pool.lease());
+        pool.release(thread);
+        pool.close();
+        Assert.assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test(timeout = 5000)
+    public void testRunningTaskIsStoppedOnRelease() throws InterruptedException {
+        BotThreadPool pool = new BotThreadPool(1);
+        BotThread thread = pool.lease();
+        CountDownLatch started = new CountDownLatch(1);
+        Assert.assertTrue(thread.submit(() -> {
+            started.countDown();
+            while (true) {
+                Thread.onSpinWait();
+            }
+        }));
+        started.await();
+        pool.release(thread);
+        //The next game can submit immediately
+        CountDownLatch executed = new CountDownLatch(1);
+        Assert.assertTrue(pool.lease().submit(executed::countDown));
+        Assert.assertTrue(executed.await(1, TimeUnit.SECONDS));
+        pool.close();
+    }
+
+    @Test(timeout = 5000)
+    public void testIdleShutdownDoesNotWait() {
+        BotThread thread = new BotThread();
+        long start = System.nanoTime();
+        thread.shutdown();
+        Assert.assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(50));
+        Assert.assertFalse(thread.getWorker().isAlive());
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.manager;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class TestConcurrencyController {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final double BUDGET = 8;
+
+    /**
+     * Samples 4 games, each having used coresPerGame processors in every second since the start
+     */
+    private static int sample(ConcurrencyController controller, double coresPerGame, int second, boolean demand) {
+        Map<Object, Long> cpuTimes = new HashMap<>();
+        for (int i = 0; i < 4; i++) cpuTimes.put(i, (long) (coresPerGame * second * SECOND));
+        return controller.update(cpuTimes, 4, demand, BUDGET, (second + 1) * SECOND);
+    }
+
+    @Test
+    public void testStaticEstimateBeforeFirstSample() {
+        ConcurrencyController controller = new ConcurrencyController(0.85, 0.1, 1000, 0);
+        Assert.assertEquals("Without measurements two processors are reserved per game", 4, sample(controller, 1, 0, true));
+    }
+
+    @Test
+    public void testGrowsWhenUnderutilised() {
+        ConcurrencyController controller = new ConcurrencyController(0.85, 0.1, 1000, 0);
+        sample(controller, 1, 0, true);
+        Assert.assertEquals(6, sample(controller, 1, 1, true));
+        Assert.assertEquals(0.5, controller.getUtilisation(), 1e-9);
+    }
+
+    @Test
+    public void testKeepsLimitWithoutDemand() {
+        ConcurrencyController controller = new ConcurrencyController(0.85, 0.1, 1000, 0);
+        sample(controller, 1, 0, false);
+        Assert.assertEquals(4, sample(controller, 1, 1, false));
+    }
+
+    @Test
+    public void testShrinksWhenOverloaded() {
+        ConcurrencyController controller = new ConcurrencyController(0.85, 0.1, 1000, 0);
+        sample(controller, 3, 0, true);
+        Assert.assertEquals(2, sample(controller, 3, 1, true));
+    }
+
+    @Test
+    public void testHysteresis() {
+        ConcurrencyController controller = new ConcurrencyController(0.85, 0.1, 1000, 0);
+        sample(controller, 1.8, 0, true);
+        Assert.assertEquals("Utilisation within the band must not change the limit", 4, sample(controller, 1.8, 1, true));
+        Assert.assertEquals(0.9, controller.getUtilisation(), 1e-9);
+    }
+
+    @Test
+    public void testCooldown() {
+        ConcurrencyController controller = new ConcurrencyController(0.85, 0.1, 1000, 5000);
+        sample(controller, 3, 0, true);
+        Assert.assertEquals("The limit must not change during the cooldown", 4, sample(controller, 3, 1, true));
+        Assert.assertEquals(4, sample(controller, 3, 4, true));
+        Assert.assertEquals(2, sample(controller, 3, 5, true));
+    }
+
+    @Test
+    public void testKeepsLimitBetweenSamples() {
+        ConcurrencyController controller = new ConcurrencyController(0.85, 0.1, 1000, 0);
+        sample(controller, 3, 0, true);
+        Map<Object, Long> cpuTimes = new HashMap<>();
+        for (int i = 0; i < 4; i++) cpuTimes.put(i, 3 * SECOND / 2);
+        Assert.assertEquals("A sample within the interval must not change the limit", 4,
+                controller.update(cpuTimes, 4, true, BUDGET, SECOND * 3 / 2));
+        Assert.assertEquals(2, sample(controller, 3, 1, true));
+    }
+
+    @Test
+    public void testParseQuota() {
+        Assert.assertEquals(2.5, ConcurrencyController.parseQuota("250000", "100000"), 1e-9);
+        Assert.assertEquals(-1, ConcurrencyController.parseQuota("max", "100000"), 1e-9);
+        Assert.assertEquals(-1, ConcurrencyController.parseQuota("-1", "100000"), 1e-9);
+    }
+}
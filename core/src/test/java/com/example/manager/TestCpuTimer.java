@@ -0,0 +1,41 @@
+package com.example.manager;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class TestCpuTimer {
+
+    private static final long BUDGET = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    public void testBlockedTimeIsNotCounted() throws InterruptedException {
+        CpuTimer timer = new CpuTimer(BUDGET, Thread.currentThread());
+        Assume.assumeTrue(timer.isMeasuringCpuTime());
+        Thread.sleep(200);
+        Assert.assertTrue(timer.getRemainingTime(TimeUnit.MILLISECONDS) > 400);
+    }
+
+    @Test
+    public void testComputationIsCounted() {
+        CpuTimer timer = new CpuTimer(BUDGET, Thread.currentThread());
+        Assume.assumeTrue(timer.isMeasuringCpuTime());
+        long end = ConcurrencyController.currentThreadCpuTime() + TimeUnit.MILLISECONDS.toNanos(200);
+        long sum = 0;
+        while (ConcurrencyController.currentThreadCpuTime() < end) {
+            sum += System.nanoTime() & 1;
+        }
+        Assert.assertTrue(sum >= 0);
+        Assert.assertTrue(timer.getRemainingTime(TimeUnit.MILLISECONDS) <= 300);
+    }
+
+    @Test
+    public void testWallClockTimerUsesNanoseconds() throws InterruptedException {
+        Timer timer = new Timer(BUDGET);
+        Thread.sleep(100);
+        long remaining = timer.getRemainingTime(TimeUnit.MILLISECONDS);
+        Assert.assertTrue(remaining <= 400 && remaining > 0);
+    }
+}
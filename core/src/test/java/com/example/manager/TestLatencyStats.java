@@ -0,0 +1,64 @@
+package com.example.manager;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class TestLatencyStats {
+
+    @Test
+    public void testEmpty() {
+        LatencyStats stats = new LatencyStats();
+        Assert.assertEquals(0, stats.getCount());
+        Assert.assertEquals(0, stats.getPercentile(99, TimeUnit.NANOSECONDS), 0);
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyStats stats = new LatencyStats();
+        for (long i = 1; i <= 1000; i++) {
+            stats.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        Assert.assertEquals(1000, stats.getCount());
+        Assert.assertEquals(500.5, stats.getMean(TimeUnit.MICROSECONDS), 1e-9);
+        Assert.assertEquals(1000, stats.getMax(TimeUnit.MICROSECONDS), 1e-9);
+        assertWithinRelativeError(500, stats.getPercentile(50, TimeUnit.MICROSECONDS));
+        assertWithinRelativeError(900, stats.getPercentile(90, TimeUnit.MICROSECONDS));
+        assertWithinRelativeError(990, stats.getPercentile(99, TimeUnit.MICROSECONDS));
+        Assert.assertEquals(1000, stats.getPercentile(100, TimeUnit.MICROSECONDS), 1e-9);
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        LatencyStats stats = new LatencyStats();
+        for (long i = 0; i < 16; i++) {
+            stats.record(i);
+        }
+        Assert.assertEquals(7, stats.getPercentile(50, TimeUnit.NANOSECONDS), 0);
+        Assert.assertEquals(15, stats.getPercentile(100, TimeUnit.NANOSECONDS), 0);
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        LatencyStats stats = new LatencyStats();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            long value = t + 1;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) stats.record(value);
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+        Assert.assertEquals(80000, stats.getCount());
+        Assert.assertEquals(4.5, stats.getMean(TimeUnit.NANOSECONDS), 1e-9);
+        Assert.assertEquals(8, stats.getMax(TimeUnit.NANOSECONDS), 0);
+        Assert.assertEquals(4, stats.getPercentile(50, TimeUnit.NANOSECONDS), 0);
+    }
+
+    private static void assertWithinRelativeError(double expected, double actual) {
+        Assert.assertTrue(String.format("Expected %f but was %f", expected, actual),
+                actual >= expected && actual <= expected * (1 + 1.0 / 16));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.manager;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestLeaderboardFeed {
+
+    private static final int CHANGES = 1000;
+
+    @Test(timeout = 10000)
+    public void testSlowSubscriberReceivesLatestStandings() throws InterruptedException {
+        AtomicInteger version = new AtomicInteger(0);
+        LeaderboardFeed feed = new LeaderboardFeed(() -> new Leaderboard(List.of(IdleBot.class),
+                new float[]{version.get()}, version.get(), CHANGES, version.get() == CHANGES));
+        AtomicInteger deliveries = new AtomicInteger(0);
+        CountDownLatch firstDelivery = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finalStandings = new CountDownLatch(1);
+        feed.subscribe(leaderboard -> {
+            deliveries.incrementAndGet();
+            firstDelivery.countDown();
+            if (leaderboard.isFinal()) finalStandings.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+        });
+
+        version.incrementAndGet();
+        feed.publish();
+        firstDelivery.await();
+        //The subscriber is blocked, publishing has to return anyway
+        for (int i = 1; i < CHANGES; i++) {
+            version.incrementAndGet();
+            feed.publish();
+        }
+        Assert.assertEquals(1, deliveries.get());
+        release.countDown();
+        finalStandings.await();
+        Assert.assertEquals("Changes during a delivery are coalesced into one", 2, deliveries.get());
+    }
+
+    @Test
+    public void testRanking() {
+        Leaderboard leaderboard = new Leaderboard(List.of(IdleBot.class, IdleBot.class, IdleBot.class),
+                new float[]{1, 3, 2}, 3, 6, false);
+        Assert.assertArrayEquals(new Integer[]{1, 2, 0}, leaderboard.getRanking());
+        Assert.assertFalse(leaderboard.isFinal());
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.manager;
+
+import com.example.simulation.SeatSymmetry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class TestMatchUps {
+
+    @Test
+    public void testSameMatchUpsAsMaterialized() {
+        for (int players = 0; players <= 7; players++) {
+            for (int teams = 1; teams <= 4; teams++) {
+                List<Integer> indices = new ArrayList<>();
+                for (int i = 0; i < players; i++) indices.add(i);
+                Set<List<Integer>> expected = new HashSet<>();
+                for (List<Integer> subset : ParallelMultiGameRun.subsetK(indices, teams)) {
+                    expected.addAll(ParallelMultiGameRun.permutations(subset));
+                }
+                MatchUps matchUps = new MatchUps(players, teams);
+                Set<List<Integer>> actual = new HashSet<>();
+                while (matchUps.hasNext()) {
+                    Assert.assertTrue("Matchups must not repeat", actual.add(matchUps.next()));
+                }
+                Assert.assertEquals(expected.size(), matchUps.size());
+                Assert.assertEquals(String.format("%d players, %d teams", players, teams), expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void testLargeField() {
+        MatchUps matchUps = new MatchUps(40, 4);
+        Assert.assertEquals(91390L * 24, matchUps.size());
+        Assert.assertEquals(List.of(0, 1, 2, 3), matchUps.get(0));
+        Assert.assertEquals(List.of(39, 38, 37, 36), matchUps.get(matchUps.size() - 1));
+        Assert.assertEquals(2558620845L, MatchUps.binomial(60, 8));
+    }
+
+    @Test
+    public void testSymmetricMap() {
+        SeatSymmetry rotation = SeatSymmetry.generate(4, List.of(new int[]{1, 2, 3, 0}));
+        MatchUps matchUps = new MatchUps(6, 4, rotation);
+        MatchUps all = new MatchUps(6, 4);
+        Assert.assertEquals(all.size() / 4, matchUps.size());
+        Assert.assertEquals(4, matchUps.getClassSize());
+        Set<List<Integer>> canonical = new HashSet<>();
+        while (matchUps.hasNext()) canonical.add(matchUps.next());
+        Assert.assertEquals(matchUps.size(), canonical.size());
+        //Every matchup is represented by exactly one enumerated matchup
+        Map<List<Integer>, Integer> classSizes = new HashMap<>();
+        while (all.hasNext()) classSizes.merge(matchUps.canonical(all.next()), 1, Integer::sum);
+        Assert.assertEquals(canonical, classSizes.keySet());
+        Assert.assertTrue(classSizes.values().stream().allMatch(size -> size == 4));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.manager;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestMpscRingBuffer {
+
+    @Test
+    public void testOrderAndCapacity() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(3);
+        Assert.assertEquals(4, buffer.capacity());
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(buffer.offer(i));
+        }
+        //Full buffers reject further elements instead of growing
+        Assert.assertFalse(buffer.offer(4));
+        Assert.assertEquals(Integer.valueOf(0), buffer.poll());
+        Assert.assertTrue(buffer.offer(4));
+        for (int i = 1; i <= 4; i++) {
+            Assert.assertEquals(Integer.valueOf(i), buffer.poll());
+        }
+        Assert.assertNull(buffer.poll());
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50000;
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(64);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int i = 0; i < perProducer; i++) {
+                        buffer.put(producer * perProducer + i);
+                    }
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        int[] lastSeen = new int[producers];
+        java.util.Arrays.fill(lastSeen, -1);
+        for (int i = 0; i < producers * perProducer; i++) {
+            int value = buffer.take();
+            int producer = value / perProducer;
+            //Elements of a single producer keep their order
+            Assert.assertTrue(value % perProducer > lastSeen[producer]);
+            lastSeen[producer] = value % perProducer;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertNull(buffer.poll());
+        for (int last : lastSeen) {
+            Assert.assertEquals(perProducer - 1, last);
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void testTakeIsInterruptible() throws InterruptedException {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        Thread consumer = Thread.currentThread();
+        Thread interrupter = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException ignored) {
+            }
+            consumer.interrupt();
+        });
+        interrupter.start();
+        try {
+            buffer.take();
+            Assert.fail("take returned without an element");
+        } catch (InterruptedException expected) {
+        }
+        interrupter.join();
+    }
+}
@@ -258,7 +258,7 @@ public class TestMultiGameRun {
         long expectedCount = binCoeff(run.getPlayers().size(), runConfig.teamCount);
         expectedCount *= factorial(runConfig.teamCount);
         Assert.assertEquals("Run contains the wrong manager instance", manager, run.manager);
-        Assert.assertEquals("Number of games doesn't equal to the calculated theoretical amount", expectedCount, run.getGames().size());
+        Assert.assertEquals("Number of games doesn't equal to the calculated theoretical amount", expectedCount, ((ParallelMultiGameRun) run).gameCount);
         Assert.assertEquals("Player aren't equal to the list specified in config", run.getPlayers(), runConfig.players);
         Assert.assertEquals("Run implementation", run.getClass(), ParallelMultiGameRun.class);
         Assert.assertEquals("Wrong Game mode", run.gameMode, runConfig.gameMode);
@@ -0,0 +1,68 @@
+package com.example.manager;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+public class TestPlayerDigests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    public static class Outer {
+        static class Inner {
+        }
+    }
+
+    static class Helper {
+    }
+
+    /**
+     * Copies the class files of Outer and Helper to dir and loads Outer without delegating to the class path.
+     */
+    private Class<?> loadCopy(File dir) throws IOException, ClassNotFoundException {
+        File source = new File(Outer.class.getResource("TestPlayerDigests$Outer.class").getFile()).getParentFile();
+        File target = new File(dir, "com/example/manager");
+        Assert.assertTrue(target.mkdirs());
+        File[] classFiles = source.listFiles((d, name) -> name.startsWith("TestPlayerDigests$Outer") || name.startsWith("TestPlayerDigests$Helper"));
+        Assert.assertNotNull(classFiles);
+        for (File classFile : classFiles) {
+            Files.copy(classFile.toPath(), new File(target, classFile.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return new URLClassLoader(new URL[]{dir.toURI().toURL()}, null).loadClass(Outer.class.getName());
+    }
+
+    @Test
+    public void testNestedClassesAreHashed() throws Exception {
+        Class<?> original = loadCopy(folder.newFolder());
+        Class<?> copy = loadCopy(folder.newFolder());
+        Assert.assertArrayEquals("Identical class files have to give the same digest", PlayerDigests.digest(original), PlayerDigests.digest(copy));
+
+        Class<?> modified = loadCopy(folder.newFolder());
+        try (FileOutputStream out = new FileOutputStream(new File(modified.getResource("TestPlayerDigests$Outer$Inner.class").getFile()), true)) {
+            out.write(0);
+        }
+        //Digests are cached per class, the modified copy has not been hashed yet
+        Assert.assertFalse("Changing a nested class has to change the digest", Arrays.equals(PlayerDigests.digest(original), PlayerDigests.digest(modified)));
+    }
+
+    @Test
+    public void testClassesOfThePackageAreHashed() throws Exception {
+        Class<?> original = loadCopy(folder.newFolder());
+        Class<?> modified = loadCopy(folder.newFolder());
+        try (FileOutputStream out = new FileOutputStream(new File(modified.getResource("TestPlayerDigests$Helper.class").getFile()), true)) {
+            out.write(0);
+        }
+        Assert.assertFalse("Changing a class the player may use has to change the digest", Arrays.equals(PlayerDigests.digest(original), PlayerDigests.digest(modified)));
+    }
+}
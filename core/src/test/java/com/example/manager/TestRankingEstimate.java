@@ -0,0 +1,89 @@
+package com.example.manager;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestRankingEstimate {
+
+    @Test
+    public void testNormalQuantile() {
+        Assert.assertEquals(0, RankingEstimate.normalQuantile(0.5), 1e-9);
+        Assert.assertEquals(1.959964, RankingEstimate.normalQuantile(0.975), 1e-6);
+        Assert.assertEquals(-2.326348, RankingEstimate.normalQuantile(0.01), 1e-6);
+        Assert.assertEquals(3.090232, RankingEstimate.normalQuantile(0.999), 1e-6);
+    }
+
+    @Test
+    public void testMeanAndVariance() {
+        RankingEstimate estimate = new RankingEstimate(1, 2, 25);
+        for (double score : new double[]{2, 4, 4, 4, 5, 5, 7, 9}) estimate.add(0, score);
+        Assert.assertEquals(8, estimate.getGames(0));
+        Assert.assertEquals(5, estimate.getMean(0), 1e-9);
+        //Sample variance 32 / 7, divided by the number of games
+        Assert.assertEquals(32.0 / 7 / 8, estimate.getVarianceOfMean(0), 1e-9);
+    }
+
+    @Test
+    public void testMinimumGames() {
+        RankingEstimate estimate = new RankingEstimate(2, 3, 25);
+        estimate.add(0, 100);
+        estimate.add(0, 100);
+        estimate.add(1, 0);
+        estimate.add(1, 0);
+        estimate.add(1, 0);
+        Assert.assertEquals(0, estimate.leastPlayed());
+        Assert.assertFalse(estimate.isStable(0.95));
+        estimate.add(0, 100);
+        Assert.assertEquals(-1, estimate.leastPlayed());
+        Assert.assertTrue(estimate.isStable(0.95));
+    }
+
+    @Test
+    public void testOverlappingPlayersAreUncertain() {
+        RankingEstimate estimate = new RankingEstimate(3, 2, 25);
+        double[][] scores = {{200, 0, 200, 0}, {100, 100, 0, 200}, {-50, -50, -50, -50}};
+        for (int player = 0; player < scores.length; player++) {
+            for (double score : scores[player]) estimate.add(player, score);
+        }
+        Integer[] ranking = estimate.ranking();
+        Assert.assertArrayEquals(new Integer[]{0, 1, 2}, ranking);
+        Assert.assertEquals(0, estimate.mostUncertainPair(ranking, 0.95));
+        Assert.assertFalse(estimate.isStable(0.95));
+
+        //Consistent results separate the pair
+        for (int i = 0; i < 40; i++) {
+            estimate.add(0, 150 + i % 3);
+            estimate.add(1, 100 + i % 3);
+        }
+        Assert.assertTrue(estimate.isStable(0.95));
+    }
+
+    @Test
+    public void testEqualPlayersAreTied() {
+        RankingEstimate estimate = new RankingEstimate(2, 2, 25);
+        for (int i = 0; i < 10; i++) {
+            estimate.add(0, i % 2 == 0 ? 100 : 0);
+            estimate.add(1, i % 2 == 0 ? 0 : 100);
+        }
+        //Equal means, but the interval of the difference still exceeds the tolerance
+        Assert.assertFalse(estimate.isStable(0.95));
+        for (int i = 0; i < 1000; i++) {
+            estimate.add(0, i % 2 == 0 ? 100 : 0);
+            estimate.add(1, i % 2 == 0 ? 0 : 100);
+        }
+        Assert.assertTrue(estimate.isStable(0.95));
+    }
+
+    @Test
+    public void testConstantScoresAreResolved() {
+        RankingEstimate estimate = new RankingEstimate(3, 2, 0);
+        for (int i = 0; i < 2; i++) {
+            estimate.add(0, 100);
+            estimate.add(1, 100);
+            estimate.add(2, 0);
+        }
+        //Without variance the confidence margin is 0, equal means are tied even without tolerance
+        Assert.assertEquals(-1, estimate.mostUncertainPair(estimate.ranking(), 0.95));
+        Assert.assertTrue(estimate.isStable(0.95));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.manager;
+
+import com.example.simulation.GameState;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+public class TestResultCache {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static GameConfig createConfig(Class<? extends Player> first, Class<? extends Player> second) {
+        GameConfig config = new GameConfig();
+        config.gameMode = GameState.GameMode.Tournament_Phase_1;
+        config.mapName = "map";
+        config.teamCount = 2;
+        config.players = new ArrayList<>();
+        config.players.add(first);
+        config.players.add(second);
+        config.seed = PlayerDigests.matchUpSeed(config.mapName, config.players);
+        return config;
+    }
+
+    @Test
+    public void testReopen() throws IOException {
+        File dir = folder.getRoot();
+        ResultCache.Key key = ResultCache.keyOf(createConfig(IdleBot.class, HumanPlayer.class));
+        try (ResultCache cache = ResultCache.open(dir)) {
+            Assert.assertNull(cache.get(key));
+            cache.put(key, new float[]{1, 2});
+        }
+        try (ResultCache cache = ResultCache.open(dir)) {
+            Assert.assertArrayEquals(new float[]{1, 2}, cache.get(ResultCache.keyOf(createConfig(IdleBot.class, HumanPlayer.class))), 0);
+            Assert.assertEquals(1, cache.getHits());
+        }
+    }
+
+    @Test
+    public void testKeyDependsOnOrderAndSeed() {
+        GameConfig config = createConfig(IdleBot.class, HumanPlayer.class);
+        GameConfig swapped = createConfig(HumanPlayer.class, IdleBot.class);
+        Assert.assertNotEquals(config.seed, swapped.seed);
+        Assert.assertNotEquals(ResultCache.keyOf(config), ResultCache.keyOf(swapped));
+        GameConfig reseeded = createConfig(IdleBot.class, HumanPlayer.class);
+        reseeded.seed++;
+        Assert.assertNotEquals(ResultCache.keyOf(config), ResultCache.keyOf(reseeded));
+        Assert.assertEquals(ResultCache.keyOf(config), ResultCache.keyOf(createConfig(IdleBot.class, HumanPlayer.class)));
+    }
+
+    @Test
+    public void testTornRecordIsDiscarded() throws IOException {
+        File dir = folder.getRoot();
+        ResultCache.Key key = ResultCache.keyOf(createConfig(IdleBot.class, IdleBot.class));
+        File file;
+        try (ResultCache cache = ResultCache.open(dir)) {
+            cache.put(key, new float[]{3, 4});
+            file = cache.getFile();
+        }
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(new byte[]{0, 0, 0, 60, 1, 2, 3});
+        }
+        try (ResultCache cache = ResultCache.open(dir)) {
+            Assert.assertArrayEquals(new float[]{3, 4}, cache.get(key), 0);
+            ResultCache.Key other = ResultCache.keyOf(createConfig(HumanPlayer.class, IdleBot.class));
+            cache.put(other, new float[]{5, 6});
+        }
+        try (ResultCache cache = ResultCache.open(dir)) {
+            Assert.assertArrayEquals(new float[]{5, 6}, cache.get(ResultCache.keyOf(createConfig(HumanPlayer.class, IdleBot.class))), 0);
+        }
+    }
+}
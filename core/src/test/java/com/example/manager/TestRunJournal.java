@@ -0,0 +1,128 @@
+package com.example.manager;
+
+import com.example.simulation.GameState;
+import com.example.simulation.StalemateRules;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class TestRunJournal {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static RunConfiguration createConfig(String mapName) {
+        RunConfiguration config = new RunConfiguration();
+        config.gameMode = GameState.GameMode.Tournament_Phase_1;
+        config.mapName = mapName;
+        config.teamCount = 2;
+        config.players = new ArrayList<>();
+        config.players.add(IdleBot.class);
+        config.players.add(IdleBot.class);
+        config.players.add(HumanPlayer.class);
+        return config;
+    }
+
+    @Test
+    public void testResume() throws IOException {
+        File dir = folder.getRoot();
+        try (RunJournal journal = RunJournal.open(dir, createConfig("map"))) {
+            Assert.assertTrue(journal.takeCompletedMatchUps().isEmpty());
+            journal.append(new Integer[]{0, 1}, new float[]{1, 2});
+            journal.append(new Integer[]{2, 0}, new float[]{3, 4});
+        }
+        try (RunJournal journal = RunJournal.open(dir, createConfig("map"))) {
+            Map<List<Integer>, float[]> completed = journal.takeCompletedMatchUps();
+            Assert.assertEquals(2, completed.size());
+            Assert.assertArrayEquals(new float[]{1, 2}, completed.get(List.of(0, 1)), 0);
+            Assert.assertArrayEquals(new float[]{3, 4}, completed.get(List.of(2, 0)), 0);
+            Assert.assertNull(completed.get(List.of(1, 0)));
+        }
+    }
+
+    @Test
+    public void testConcurrentAppends() throws Exception {
+        File dir = folder.getRoot();
+        int threads = 8;
+        int records = 50;
+        try (RunJournal journal = RunJournal.open(dir, createConfig("map"))) {
+            List<Thread> appenders = new ArrayList<>();
+            List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                appenders.add(new Thread(() -> {
+                    try {
+                        for (int i = 0; i < records; i++) journal.append(new Integer[]{thread, i}, new float[]{thread, i});
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                }));
+            }
+            for (Thread appender : appenders) appender.start();
+            for (Thread appender : appenders) appender.join();
+            Assert.assertEquals(List.of(), errors);
+        }
+        try (RunJournal journal = RunJournal.open(dir, createConfig("map"))) {
+            Map<List<Integer>, float[]> completed = journal.takeCompletedMatchUps();
+            Assert.assertEquals(threads * records, completed.size());
+            Assert.assertArrayEquals(new float[]{3, 7}, completed.get(List.of(3, 7)), 0);
+            Assert.assertTrue("The journal must not keep the matchups", journal.takeCompletedMatchUps().isEmpty());
+        }
+    }
+
+    @Test
+    public void testDifferentConfiguration() throws IOException {
+        File dir = folder.getRoot();
+        try (RunJournal journal = RunJournal.open(dir, createConfig("map"))) {
+            journal.append(new Integer[]{0, 1}, new float[]{1, 2});
+        }
+        try (RunJournal journal = RunJournal.open(dir, createConfig("otherMap"))) {
+            Assert.assertTrue("A run with a different configuration must not resume", journal.takeCompletedMatchUps().isEmpty());
+        }
+    }
+
+    @Test
+    public void testDifferentGameRules() {
+        String key = RunJournal.computeRunKey(createConfig("map"));
+        RunConfiguration stalemate = createConfig("map");
+        stalemate.stalemateRules = StalemateRules.HEADLESS;
+        Assert.assertNotEquals(key, RunJournal.computeRunKey(stalemate));
+        RunConfiguration allocation = createConfig("map");
+        allocation.botAllocationLimit = 1 << 20;
+        Assert.assertNotEquals(key, RunJournal.computeRunKey(allocation));
+    }
+
+    @Test
+    public void testTornRecord() throws IOException {
+        File dir = folder.getRoot();
+        File file;
+        try (RunJournal journal = RunJournal.open(dir, createConfig("map"))) {
+            journal.append(new Integer[]{0, 1}, new float[]{1, 2});
+            file = journal.getFile();
+        }
+        long validLength = file.length();
+        //Simulates a crash while appending the second record
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(new byte[]{0, 0, 0, 20, 1, 2, 3});
+        }
+        try (RunJournal journal = RunJournal.open(dir, createConfig("map"))) {
+            Assert.assertEquals(1, journal.takeCompletedMatchUps().size());
+            Assert.assertEquals("The torn record has to be truncated", validLength, file.length());
+            journal.append(new Integer[]{1, 0}, new float[]{5, 6});
+        }
+        try (RunJournal journal = RunJournal.open(dir, createConfig("map"))) {
+            Assert.assertEquals(2, journal.takeCompletedMatchUps().size());
+            journal.delete();
+            Assert.assertFalse(file.exists());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.manager;
+
+import com.example.simulation.GameState;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestSchedulingPolicy {
+
+    private static Game createGame(String mapName, Run run) {
+        GameConfig config = new GameConfig();
+        config.gameMode = GameState.GameMode.Tournament_Phase_1;
+        config.mapName = mapName;
+        config.teamCount = 2;
+        config.players = new ArrayList<>();
+        config.players.add(IdleBot.class);
+        config.players.add(IdleBot.class);
+        Game game = new Game(config);
+        game.setRun(run);
+        return game;
+    }
+
+    private static List<Executable> drain(SchedulingPolicy policy, List<Executable> candidates) {
+        List<Executable> order = new ArrayList<>();
+        while (!candidates.isEmpty()) {
+            Executable next = policy.select(candidates);
+            candidates.remove(next);
+            order.add(next);
+        }
+        return order;
+    }
+
+    @Test
+    public void testFifo() {
+        List<Executable> candidates = new ArrayList<>();
+        for (int i = 0; i < 5; i++) candidates.add(createGame("map", null));
+        List<Executable> expected = new ArrayList<>(candidates);
+        Assert.assertEquals("FIFO has to preserve the scheduling order", expected, drain(new FifoSchedulingPolicy(), candidates));
+    }
+
+    @Test
+    public void testRoundRobin() {
+        SingleGameRunStub runA = new SingleGameRunStub();
+        SingleGameRunStub runB = new SingleGameRunStub();
+        List<Executable> candidates = new ArrayList<>();
+        Game a1 = createGame("map", runA);
+        Game a2 = createGame("map", runA);
+        Game a3 = createGame("map", runA);
+        Game b1 = createGame("map", runB);
+        Game b2 = createGame("map", runB);
+        candidates.add(a1);
+        candidates.add(a2);
+        candidates.add(a3);
+        candidates.add(b1);
+        candidates.add(b2);
+        List<Executable> expected = List.of(a1, b1, a2, b2, a3);
+        Assert.assertEquals("Round robin has to alternate between runs", expected, drain(new RoundRobinSchedulingPolicy(), candidates));
+    }
+
+    @Test
+    public void testShortestExpectedDuration() throws InterruptedException {
+        ShortestExpectedDurationPolicy policy = new ShortestExpectedDurationPolicy();
+        Game slow = createGame("slowMap", null);
+        Game fast = createGame("fastMap", null);
+        policy.onGameStarted(slow);
+        policy.onGameStarted(fast);
+        fast.setStatus(Executable.Status.COMPLETED);
+        policy.onGameCompleted(fast);
+        Thread.sleep(20);
+        slow.setStatus(Executable.Status.COMPLETED);
+        policy.onGameCompleted(slow);
+
+        List<Executable> candidates = new ArrayList<>();
+        candidates.add(createGame("slowMap", null));
+        candidates.add(createGame("fastMap", null));
+        Executable selected = policy.select(candidates);
+        Assert.assertEquals("The game on the map with shorter history should be selected first", "fastMap", selected.config.mapName);
+    }
+
+    private static class SingleGameRunStub extends Run {
+
+        private SingleGameRunStub() {
+            super(null, createConfig());
+        }
+
+        private static RunConfiguration createConfig() {
+            RunConfiguration config = new RunConfiguration();
+            config.players = new ArrayList<>();
+            return config;
+        }
+
+        @Override
+        public float[] getScores() {
+            return new float[0];
+        }
+    }
+}
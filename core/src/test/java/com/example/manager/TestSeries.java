@@ -0,0 +1,90 @@
+package com.example.manager;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestSeries {
+
+    private static int scheduleAll(Series series) {
+        int games = 0;
+        while (series.scheduleNext()) games++;
+        return games;
+    }
+
+    @Test
+    public void testTwoZeroSkipsThirdGame() {
+        Series series = new Series(3);
+        Assert.assertEquals(2, scheduleAll(series));
+        Assert.assertFalse(series.record(new float[]{10, 0}));
+        //The game in progress can still decide the series
+        Assert.assertEquals(0, scheduleAll(series));
+        Assert.assertTrue(series.record(new float[]{10, 0}));
+        Assert.assertEquals(0, scheduleAll(series));
+        Assert.assertEquals(2, series.getScheduled());
+        Assert.assertTrue(series.getWinner() > 0);
+    }
+
+    @Test
+    public void testOneOneGoesToThirdGame() {
+        Series series = new Series(3);
+        Assert.assertEquals(2, scheduleAll(series));
+        Assert.assertFalse(series.record(new float[]{10, 0}));
+        Assert.assertFalse(series.record(new float[]{0, 10}));
+        Assert.assertEquals(1, scheduleAll(series));
+        Assert.assertTrue(series.record(new float[]{0, 10}));
+        Assert.assertEquals(3, series.getScheduled());
+        Assert.assertEquals(1, series.getWins1());
+        Assert.assertEquals(2, series.getWins2());
+        Assert.assertTrue(series.getWinner() < 0);
+    }
+
+    @Test
+    public void testDrawsAreDecidedByScoreDifference() {
+        Series series = new Series(3);
+        Assert.assertEquals(2, scheduleAll(series));
+        Assert.assertFalse(series.record(new float[]{10, 0}));
+        Assert.assertFalse(series.record(new float[]{0, 5}));
+        Assert.assertEquals(1, scheduleAll(series));
+        Assert.assertTrue(series.record(new float[]{3, 3}));
+        //1-1 after three games, the first player scored 5 more in total
+        Assert.assertTrue(series.getWinner() > 0);
+    }
+
+    @Test
+    public void testAllDrawsWithoutWinner() {
+        Series series = new Series(3);
+        Assert.assertEquals(2, scheduleAll(series));
+        Assert.assertFalse(series.record(new float[]{0, 0}));
+        Assert.assertFalse(series.record(new float[]{0, 0}));
+        Assert.assertEquals(1, scheduleAll(series));
+        Assert.assertTrue(series.record(new float[]{0, 0}));
+        Assert.assertEquals(0, series.getWinner());
+    }
+
+    @Test
+    public void testBestOfFive() {
+        Series sweep = new Series(5);
+        Assert.assertEquals(3, scheduleAll(sweep));
+        Assert.assertFalse(sweep.record(new float[]{0, 1}));
+        Assert.assertFalse(sweep.record(new float[]{0, 1}));
+        Assert.assertTrue(sweep.record(new float[]{0, 1}));
+        Assert.assertEquals(3, sweep.getScheduled());
+        Assert.assertTrue(sweep.getWinner() < 0);
+
+        Series full = new Series(5);
+        Assert.assertEquals(3, scheduleAll(full));
+        Assert.assertFalse(full.record(new float[]{1, 0}));
+        Assert.assertEquals(0, scheduleAll(full));
+        Assert.assertFalse(full.record(new float[]{0, 1}));
+        //1-1, the game in flight is not enough for three wins
+        Assert.assertEquals(1, scheduleAll(full));
+        Assert.assertFalse(full.record(new float[]{1, 0}));
+        Assert.assertEquals(0, scheduleAll(full));
+        Assert.assertFalse(full.record(new float[]{0, 1}));
+        Assert.assertEquals(1, scheduleAll(full));
+        Assert.assertTrue(full.record(new float[]{1, 0}));
+        Assert.assertEquals(5, full.getScheduled());
+        Assert.assertEquals(3, full.getWins1());
+        Assert.assertTrue(full.getWinner() > 0);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.manager;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestTimerWheel {
+
+    private TimerWheel timerWheel;
+
+    @Before
+    public void setUp() {
+        timerWheel = new TimerWheel(5, TimeUnit.MILLISECONDS, 8, "Test_Timer_Wheel");
+    }
+
+    @After
+    public void tearDown() {
+        timerWheel.stop();
+    }
+
+    @Test
+    public void testExpires() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+        TimerWheel.Timeout timeout = timerWheel.schedule(fired::countDown, 30, TimeUnit.MILLISECONDS);
+        Assert.assertTrue("Task has not been executed", fired.await(2, TimeUnit.SECONDS));
+        Assert.assertTrue("Task has been executed before its deadline", System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(30));
+        Assert.assertTrue(timeout.isExpired());
+        Assert.assertFalse("An expired task must not be cancellable", timeout.cancel());
+    }
+
+    @Test
+    public void testExpiresAfterMultipleRounds() throws InterruptedException {
+        //8 slots of 5ms, the deadline is reached in the third round of the wheel
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+        timerWheel.schedule(fired::countDown, 100, TimeUnit.MILLISECONDS);
+        Assert.assertTrue("Task has not been executed", fired.await(2, TimeUnit.SECONDS));
+        Assert.assertTrue("Task has been executed before its deadline", System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    public void testCancel() throws InterruptedException {
+        AtomicInteger fired = new AtomicInteger(0);
+        TimerWheel.Timeout cancelled = timerWheel.schedule(fired::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(cancelled.cancel());
+        Assert.assertTrue(cancelled.isCancelled());
+
+        CountDownLatch later = new CountDownLatch(1);
+        timerWheel.schedule(later::countDown, 60, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(later.await(2, TimeUnit.SECONDS));
+        Assert.assertEquals("Cancelled task has been executed", 0, fired.get());
+    }
+}
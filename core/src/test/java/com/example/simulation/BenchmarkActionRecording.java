@@ -0,0 +1,90 @@
+package com.example.simulation;
+
+import com.example.simulation.action.ActionLog;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Compares games played by a {@link Simulation}, that records its actions, to games played by one, that discards
+ * them, like games without animation or replay do.
+ * <p>
+ * Every game loads the map and plays a fixed number of turns on the simulation thread only, with one command and the
+ * penalty of a failed bot every few turns, so the result is the share of the turn loop spent building action logs.
+ * Stalemate detection is disabled, so every game has the same length. If the map is not available in ./maps, a minimal
+ * map is created there for the duration of the benchmark.
+ * <p>
+ * Usage: BenchmarkActionRecording [turnsPerGame] [seconds] [mapName]
+ */
+public class BenchmarkActionRecording {
+
+    private static final String GENERATED_MAP = "benchmark_recording";
+
+    public static void main(String[] args) throws Exception {
+        int turnsPerGame = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        String mapName = args.length > 2 ? args[2] : GENERATED_MAP;
+        File generatedMap = mapName.equals(GENERATED_MAP) ? createMap() : null;
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long thread = Thread.currentThread().getId();
+        try {
+            for (int round = 0; round < 3; round++) {
+                for (boolean recording : new boolean[]{true, false}) {
+                    long deadline = System.nanoTime() + seconds * 1_000_000_000L / 6;
+                    long bytesBefore = threads.getThreadAllocatedBytes(thread);
+                    long start = System.nanoTime();
+                    int games = 0;
+                    while (System.nanoTime() < deadline) {
+                        playGame(mapName, turnsPerGame, recording);
+                        games++;
+                    }
+                    double duration = (System.nanoTime() - start) / 1e9;
+                    long bytes = threads.getThreadAllocatedBytes(thread) - bytesBefore;
+                    System.out.printf("%-10s %8.1f games/s, %8.0f bytes/turn%n", recording ? "recording" : "discarding",
+                            games / duration, (double) bytes / ((long) games * turnsPerGame));
+                }
+            }
+        } finally {
+            if (generatedMap != null && !generatedMap.delete()) generatedMap.deleteOnExit();
+        }
+    }
+
+    /**
+     * Plays the turns in the order of the turn loop of the Manager, without bots
+     */
+    private static void playGame(String mapName, int turns, boolean recording) {
+        Simulation simulation = new Simulation(GameState.GameMode.Tournament_Phase_1, mapName, 2, recording, 0);
+        simulation.setStalemateRules(StalemateRules.NONE);
+        long checksum = 0;
+        for (int turn = 0; turn < turns && simulation.getState().isActive(); turn++) {
+            checksum += consume(simulation.clearAndReturnActionLog());
+            GameCharacterController controller = simulation.getController();
+            checksum += consume(simulation.clearAndReturnActionLog());
+            checksum += consume(controller.foo(turn));
+            if (turn % 10 == 0) simulation.penalizeCurrentPlayer();
+            checksum += consume(simulation.endTurn());
+        }
+        if (checksum < 0) System.out.println(checksum);
+    }
+
+    private static int consume(ActionLog log) {
+        return log.getRootAction().getChildren().size();
+    }
+
+    /**
+     * Creates a 4x4 map with one spawn point per team
+     */
+    private static File createMap() throws IOException {
+        File dir = new File("maps");
+        if (!dir.exists() && !dir.mkdirs()) throw new IOException("Unable to create " + dir.getAbsolutePath());
+        File map = new File(dir, GENERATED_MAP + ".json");
+        Files.write(map.toPath(), ("{\"width\":4,\"height\":4,\"layers\":[{\"data\":" +
+                "[101,1,1,1, 0,0,0,0, 0,0,0,0, 1,1,1,102]}]}").getBytes(StandardCharsets.UTF_8));
+        return map;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.simulation;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class TestSeatSymmetry {
+
+    @Test
+    public void testRotationGroup() {
+        SeatSymmetry rotation = SeatSymmetry.generate(4, List.of(new int[]{1, 2, 3, 0}));
+        Assert.assertEquals(4, rotation.getOrder());
+        //The player on seat 0 moves to seat 1
+        Assert.assertEquals(List.of(0, 3, 1, 2), rotation.canonical(List.of(3, 1, 2, 0)));
+        Assert.assertEquals(List.of(0, 3, 1, 2), rotation.canonical(List.of(1, 2, 0, 3)));
+        Assert.assertTrue(rotation.isCanonical(List.of(0, 3, 1, 2)));
+        Assert.assertFalse(rotation.isCanonical(List.of(2, 0, 3, 1)));
+    }
+
+    @Test
+    public void testGeneratedGroup() {
+        //Rotation and reflection of a square generate the dihedral group
+        SeatSymmetry dihedral = SeatSymmetry.generate(4, List.of(new int[]{1, 2, 3, 0}, new int[]{3, 2, 1, 0}));
+        Assert.assertEquals(8, dihedral.getOrder());
+    }
+
+    @Test
+    public void testUnusedSpawnGroups() {
+        //A swap of the first two of four spawn groups applies to 2 player games, a rotation does not
+        List<int[]> generators = List.of(new int[]{1, 0, 2, 3}, new int[]{1, 2, 3, 0});
+        Assert.assertEquals(2, SeatSymmetry.generate(2, generators).getOrder());
+        Assert.assertEquals(List.of(4, 7), SeatSymmetry.generate(2, generators).canonical(List.of(7, 4)));
+        Assert.assertEquals(1, SeatSymmetry.generate(3, List.of(new int[]{1, 2, 3, 0})).getOrder());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoPermutation() {
+        SeatSymmetry.generate(2, List.of(new int[]{1, 1}));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.simulation;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestSnapshotGrid {
+
+    @Test
+    public void testSnapshotIsNotAffectedByLaterWrites() {
+        SnapshotGrid<Integer> grid = new SnapshotGrid<>(40, 20);
+        grid.set(3, 4, 1);
+        grid.set(35, 19, 2);
+        SnapshotGrid<Integer> snapshot = grid.snapshot();
+        grid.set(3, 4, 5);
+        grid.set(20, 0, 6);
+
+        Assert.assertEquals(Integer.valueOf(1), snapshot.get(3, 4));
+        Assert.assertEquals(Integer.valueOf(2), snapshot.get(35, 19));
+        Assert.assertNull(snapshot.get(20, 0));
+        Assert.assertEquals(Integer.valueOf(5), grid.get(3, 4));
+        Assert.assertEquals(Integer.valueOf(2), grid.get(35, 19));
+        Assert.assertEquals(Integer.valueOf(6), grid.get(20, 0));
+    }
+
+    @Test
+    public void testSuccessiveSnapshots() {
+        SnapshotGrid<Integer> grid = new SnapshotGrid<>(17, 17);
+        List<SnapshotGrid<Integer>> snapshots = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            grid.set(16, 16, i);
+            grid.set(0, 0, i);
+            snapshots.add(grid.snapshot());
+        }
+        for (int i = 0; i < snapshots.size(); i++) {
+            Assert.assertEquals(Integer.valueOf(i), snapshots.get(i).get(16, 16));
+            Assert.assertEquals(Integer.valueOf(i), snapshots.get(i).get(0, 0));
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSnapshotIsReadOnly() {
+        SnapshotGrid<Integer> grid = new SnapshotGrid<>(4, 4);
+        grid.snapshot().set(0, 0, 1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testBounds() {
+        new SnapshotGrid<Integer>(4, 4).get(4, 0);
+    }
+}
@@ -10,11 +10,14 @@ import org.apache.commons.cli.*;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 // Please note that on macOS your application needs to be started with the -XstartOnFirstThread JVM argument
 public class DesktopLauncher {
 
     private static final Options cliOptions = new Options();
+    private static final long LEADERBOARD_INTERVAL = TimeUnit.SECONDS.toNanos(5);
 
     static {
 
@@ -62,6 +65,49 @@ public class DesktopLauncher {
                 .longOpt("replay")
                 .desc("Saves replay and results of the matches (WIP)").build());
 
+        cliOptions.addOption(Option
+                .builder("s")
+                .longOpt("scheduling")
+                .hasArg()
+                .desc("Order in which the games of a run are executed (Default: fifo)\n" +
+                        "  fifo - in the order they were created\n" +
+                        "  roundrobin - alternating between runs\n" +
+                        "  shortest - shortest expected duration first").build());
+
+        cliOptions.addOption(Option
+                .builder("v")
+                .longOpt("virtual")
+                .desc("Runs game loops on virtual threads (requires Java 21+, experimental, no measured speedup)").build());
+
+        cliOptions.addOption(Option
+                .builder("j")
+                .longOpt("journal")
+                .desc("Journals completed games, so an interrupted multi-game run resumes where it stopped").build());
+
+        cliOptions.addOption(Option
+                .builder("i")
+                .longOpt("isolated")
+                .desc("Runs every bot in a separate, pre-warmed process").build());
+
+        cliOptions.addOption(Option
+                .builder("a")
+                .longOpt("adaptive")
+                .desc("Adapts the number of parallel games to their measured CPU usage").build());
+
+        cliOptions.addOption(Option
+                .builder("w")
+                .longOpt("workers")
+                .hasArg()
+                .type(Number.class)
+                .desc("Distributes the games of Tournament: Phase 1 to the given number of worker processes (Default: 0)").build());
+
+        cliOptions.addOption(Option
+                .builder("l")
+                .longOpt("leaderboard")
+                .hasArg()
+                .type(Number.class)
+                .desc("Prints the standings of the given number of best players while a run progresses").build());
+
     }
 
     public static void main(String[] args) {
@@ -90,6 +136,13 @@ public class DesktopLauncher {
             runConfig.players = Manager.getPlayers(params.getOptionValue("p").trim().split("\\s+"), !runConfig.gui);
         if (params.hasOption("r"))
             runConfig.replay = true;
+        if (params.hasOption("v"))
+            runConfig.virtualThreads = true;
+        if (params.hasOption("j"))
+            runConfig.journal = true;
+        if (params.hasOption("i"))
+            runConfig.isolatedBots = true;
+        runConfig.workerProcesses = Integer.parseInt(params.getOptionValue("w", "0"));
         int gameMode = Integer.parseInt(params.getOptionValue("g", "0"));
         if (gameMode < 0 || gameMode >= GameState.GameMode.values().length) {
             System.err.println("Valid GameModes range from 0 to 4");
@@ -97,6 +150,15 @@ public class DesktopLauncher {
             return;
         }
         runConfig.gameMode = GameState.GameMode.values()[gameMode];
+        SchedulingPolicy schedulingPolicy = getSchedulingPolicy(params.getOptionValue("s", "fifo"));
+        if (schedulingPolicy == null) {
+            System.err.println("Valid scheduling policies are fifo, roundrobin and shortest");
+            printHelp();
+            return;
+        }
+        Manager.getManager().setSchedulingPolicy(schedulingPolicy);
+        if (params.hasOption("a"))
+            Manager.getManager().setConcurrencyController(new ConcurrencyController());
         if (runConfig.gameMode == GameState.GameMode.Tournament_Phase_1)
             runConfig.teamCount = 4;
         if (runConfig.gui) {
@@ -138,6 +200,17 @@ public class DesktopLauncher {
             }
             Manager manager = Manager.getManager();
             Run run = manager.startRun(runConfig);
+            if (params.hasOption("l")) {
+                int limit = Integer.parseInt(params.getOptionValue("l"));
+                AtomicLong lastPrint = new AtomicLong(System.nanoTime());
+                run.subscribe(leaderboard -> {
+                    //Subscribers receive every change, a 100k game run would flood the console otherwise
+                    long now = System.nanoTime();
+                    if (leaderboard.isFinal() || now - lastPrint.get() < LEADERBOARD_INTERVAL) return;
+                    lastPrint.set(now);
+                    System.out.print(leaderboard.format(limit));
+                });
+            }
             Object lock = new Object();
             synchronized (lock) {
                 run.addCompletionListener((tmp) -> {
@@ -215,6 +288,19 @@ public class DesktopLauncher {
     }
 
 
+    private static SchedulingPolicy getSchedulingPolicy(String name) {
+        switch (name) {
+            case "fifo":
+                return new FifoSchedulingPolicy();
+            case "roundrobin":
+                return new RoundRobinSchedulingPolicy();
+            case "shortest":
+                return new ShortestExpectedDurationPolicy();
+            default:
+                return null;
+        }
+    }
+
     private static void printHelp() {
         String header = "\n\n";
         String footer = "\nPlease report issues at wettbewerb@acagamics.de";